@@ -0,0 +1,93 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of filtered listings over a 1M-beer catalog of 7 types and 1000 brands. Type and brand filters walk the
+ * (type, id) and (brand, id) indexes; the quantity and fill ratio filters alone are checked row by row in id order,
+ * which stays cheap while matches are frequent. Expect the indexed filters to stay below a millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BeerFilterBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000_000;
+    private static final int BRANDS = 1_000;
+    private static final int MAX_STOCK = 100;
+
+    private ConfigurableApplicationContext context;
+
+    private BeerService beerService;
+
+    private BeerFilterDTO typeFilter;
+    private BeerFilterDTO brandFilter;
+    private BeerFilterDTO typeAndFillRatioFilter;
+    private BeerFilterDTO quantityRangeFilter;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        BenchmarkApplication.saveCatalog(context, CATALOG_SIZE, BRANDS, MAX_STOCK);
+        typeFilter = BeerFilterDTO.builder().type(BeerType.IPA).build();
+        brandFilter = BeerFilterDTO.builder().brand("Brand 42").build();
+        typeAndFillRatioFilter = BeerFilterDTO.builder().type(BeerType.STOUT).maxFillRatio(0.1).build();
+        quantityRangeFilter = BeerFilterDTO.builder().minQuantity(40).maxQuantity(60).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerPageDTO byType() {
+        return beerService.listFiltered(typeFilter, null, pageSize);
+    }
+
+    @Benchmark
+    public BeerPageDTO byBrand() {
+        return beerService.listFiltered(brandFilter, null, pageSize);
+    }
+
+    @Benchmark
+    public BeerPageDTO byTypeAndFillRatio() {
+        return beerService.listFiltered(typeAndFillRatioFilter, null, pageSize);
+    }
+
+    @Benchmark
+    public BeerPageDTO byQuantityRange() {
+        return beerService.listFiltered(quantityRangeFilter, null, pageSize);
+    }
+
+    @Benchmark
+    public BeerPageDTO byBrandFromTheMiddleOfTheCatalog() {
+        return beerService.listFiltered(brandFilter, (long) CATALOG_SIZE / 2, pageSize);
+    }
+}
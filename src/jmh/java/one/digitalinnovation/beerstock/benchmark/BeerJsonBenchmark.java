@@ -0,0 +1,72 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link BeerDTO} with an {@link ObjectMapper} configured like the one Spring MVC uses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BeerJsonBenchmark {
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private BeerDTO beerDTO;
+
+    private byte[] json;
+
+    @Setup
+    public void createMapper() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(BeerDTO.class);
+        reader = objectMapper.readerFor(BeerDTO.class);
+        beerDTO = BeerDTO.builder()
+                .id(1L)
+                .name("Brahma")
+                .brand("Ambev")
+                .max(50)
+                .quantity(10)
+                .type(BeerType.LAGER)
+                .build();
+        json = writer.writeValueAsBytes(beerDTO);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(beerDTO);
+    }
+
+    @Benchmark
+    public BeerDTO deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public BeerDTO roundTrip() throws IOException {
+        return reader.readValue(writer.writeValueAsBytes(beerDTO));
+    }
+}
@@ -0,0 +1,59 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-object cost of the MapStruct conversions between {@link Beer} and {@link BeerDTO}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BeerMapperBenchmark {
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private Beer beer;
+
+    private BeerDTO beerDTO;
+
+    @Setup
+    public void createBeers() {
+        beerDTO = BeerDTO.builder()
+                .id(1L)
+                .name("Brahma")
+                .brand("Ambev")
+                .max(50)
+                .quantity(10)
+                .type(BeerType.LAGER)
+                .build();
+        beer = beerMapper.toModel(beerDTO);
+    }
+
+    @Benchmark
+    public BeerDTO toDTO() {
+        return beerMapper.toDTO(beer);
+    }
+
+    @Benchmark
+    public Beer toModel() {
+        return beerMapper.toModel(beerDTO);
+    }
+}
@@ -0,0 +1,99 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application without a web server on a private in-memory database, for benchmarks that go through the
+ * real service and repository beans.
+ */
+final class BenchmarkApplication {
+
+    private static final int SAVE_CHUNK = 1_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(BeerstockApplication.class, WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Starts the given application on a private in-memory database (JDBC or R2DBC, whichever it uses) as the given
+     * type of web application, listening on a random port when it has a web server.
+     *
+     * @see #port(ConfigurableApplicationContext)
+     */
+    static ConfigurableApplicationContext start(Class<?> application, WebApplicationType type, String... properties) {
+        String database = UUID.randomUUID().toString();
+        List<String> allProperties = new ArrayList<>();
+        allProperties.add("spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        allProperties.add("spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1");
+        allProperties.add("server.port=0");
+        allProperties.add("logging.level.root=WARN");
+        allProperties.addAll(List.of(properties));
+        return new SpringApplicationBuilder(application)
+                .web(type)
+                .properties(allProperties.toArray(new String[0]))
+                .run();
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Saves {@code count} beers named {@code "<prefix> <n>"} with the given max and half-full stock.
+     */
+    static List<Beer> saveBeers(ConfigurableApplicationContext context, String prefix, int count, int max) {
+        BeerRepository beerRepository = context.getBean(BeerRepository.class);
+        List<Beer> saved = new ArrayList<>(count);
+        List<Beer> chunk = new ArrayList<>(SAVE_CHUNK);
+        for (int i = 0; i < count; i++) {
+            Beer beer = new Beer();
+            beer.setName(prefix + " " + i);
+            beer.setBrand("Benchmark");
+            beer.setMax(max);
+            beer.setQuantity(max / 2);
+            beer.setType(BeerType.LAGER);
+            chunk.add(beer);
+            if (chunk.size() == SAVE_CHUNK || i == count - 1) {
+                saved.addAll(beerRepository.saveAll(chunk));
+                chunk.clear();
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Saves {@code count} beers spread evenly over every type, {@code brands} brands named {@code "Brand <n>"} and
+     * fill levels from empty to full, without keeping them in memory.
+     */
+    static void saveCatalog(ConfigurableApplicationContext context, int count, int brands, int max) {
+        BeerRepository beerRepository = context.getBean(BeerRepository.class);
+        BeerType[] types = BeerType.values();
+        List<Beer> chunk = new ArrayList<>(SAVE_CHUNK);
+        for (int i = 0; i < count; i++) {
+            Beer beer = new Beer();
+            beer.setName("Catalog beer " + i);
+            beer.setBrand("Brand " + (i % brands));
+            beer.setMax(max);
+            beer.setQuantity(i % (max + 1));
+            beer.setType(types[i % types.length]);
+            chunk.add(beer);
+            if (chunk.size() == SAVE_CHUNK || i == count - 1) {
+                beerRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.controller.BeerControllerAdvice;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Cost of failing a lookup of an unknown beer, before and after the switch to stack-trace-free domain exceptions.
+ *
+ * <p>{@code legacy*} use a copy of the former {@code BeerNotFoundException}: stack trace captured on construction,
+ * message formatted eagerly, status resolved from {@code @ResponseStatus}. {@code domain*} use the current exception,
+ * rendered by {@link BeerControllerAdvice}. {@code stackDepth} adds frames between the throw and the catch, as the
+ * Spring proxies and filters of a real request do.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DomainExceptionBenchmark {
+
+    @Param({"10", "100"})
+    public int stackDepth;
+
+    private MockMvc legacyMvc;
+
+    private MockMvc domainMvc;
+
+    @Setup
+    public void createMockMvc() {
+        legacyMvc = MockMvcBuilders.standaloneSetup(new LegacyController()).build();
+        domainMvc = MockMvcBuilders.standaloneSetup(new DomainController())
+                .setControllerAdvice(new BeerControllerAdvice())
+                .build();
+    }
+
+    @Benchmark
+    public Exception legacyThrowAndCatch() {
+        try {
+            throwAtDepth(stackDepth, true);
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Exception domainThrowAndCatch() {
+        try {
+            throwAtDepth(stackDepth, false);
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int legacyNotFoundResponse() throws Exception {
+        return legacyMvc.perform(get("/beers/unknown")).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int domainNotFoundResponse() throws Exception {
+        return domainMvc.perform(get("/beers/unknown")).andReturn().getResponse().getStatus();
+    }
+
+    private static void throwAtDepth(int depth, boolean legacy) throws Exception {
+        if (depth > 0) {
+            throwAtDepth(depth - 1, legacy);
+            return;
+        }
+        if (legacy) {
+            throw new LegacyBeerNotFoundException("unknown");
+        }
+        throw new BeerNotFoundException("unknown");
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public static class LegacyBeerNotFoundException extends Exception {
+
+        public LegacyBeerNotFoundException(String beerName) {
+            super(String.format("Beer with name %s not found in the system.", beerName));
+        }
+    }
+
+    @RestController
+    public static class LegacyController {
+
+        @GetMapping("/beers/{name}")
+        public String findByName(@PathVariable String name) throws LegacyBeerNotFoundException {
+            throw new LegacyBeerNotFoundException(name);
+        }
+    }
+
+    @RestController
+    public static class DomainController {
+
+        @GetMapping("/beers/{name}")
+        public String findByName(@PathVariable String name) throws BeerNotFoundException {
+            throw new BeerNotFoundException(name);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.reactive.ReactiveBeerstockApplication;
+import one.digitalinnovation.beerstock.reactive.repository.ReactiveBeerRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/v1/beers/{name}} with 10k requests in flight at once, against the servlet application (Tomcat and
+ * JPA) and the reactive one (Netty and R2DBC). The score is requests per second; the {@code peakThreads} counter is
+ * the JVM's peak live thread count during the iteration, which includes the few event loop threads of the client
+ * shared by both stacks. The reactive application has no cache, so the servlet one runs with its Caffeine and
+ * Hibernate caches off: both read every beer from the database.
+ *
+ * <p>Client and server sockets live in the same process, so the open file limit must allow about twice the number of
+ * connections ({@code ulimit -n 32768}) or connections fail with "Too many open files".</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class ServletVsReactiveBenchmark {
+
+    private static final int CONNECTIONS = 10_000;
+    private static final int BEERS = 1_000;
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+
+    private ConnectionProvider connectionProvider;
+
+    private HttpClient httpClient;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        if ("servlet".equals(stack)) {
+            // one Tomcat connection per client connection; the request threads stay at the default 200
+            context = BenchmarkApplication.start(BeerstockApplication.class, WebApplicationType.SERVLET,
+                    "server.tomcat.max-connections=" + CONNECTIONS,
+                    "server.tomcat.accept-count=" + CONNECTIONS,
+                    "spring.cache.type=none",
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+            BenchmarkApplication.saveBeers(context, "Concurrent", BEERS, 100);
+        } else {
+            context = BenchmarkApplication.start(ReactiveBeerstockApplication.class, WebApplicationType.REACTIVE);
+            saveReactiveBeers(context.getBean(ReactiveBeerRepository.class));
+        }
+        connectionProvider = ConnectionProvider.builder("servlet-vs-reactive")
+                .maxConnections(CONNECTIONS)
+                .pendingAcquireTimeout(Duration.ofMinutes(1))
+                .build();
+        httpClient = HttpClient.create(connectionProvider)
+                .baseUrl("http://localhost:" + BenchmarkApplication.port(context));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        connectionProvider.dispose();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONNECTIONS)
+    public long findByName(ThreadCounters counters) {
+        long failures = Flux.range(0, CONNECTIONS)
+                .flatMap(i -> httpClient.get()
+                        .uri("/api/v1/beers/Concurrent%20" + (i % BEERS))
+                        .responseSingle((response, body) -> body.asByteArray()
+                                .thenReturn(response.status())), CONNECTIONS)
+                .filter(status -> !HttpResponseStatus.OK.equals(status))
+                .count()
+                .block();
+        if (failures > 0) {
+            throw new IllegalStateException(failures + " of " + CONNECTIONS + " requests failed");
+        }
+        counters.sample();
+        return failures;
+    }
+
+    private static void saveReactiveBeers(ReactiveBeerRepository beerRepository) {
+        Flux.range(0, BEERS)
+                .concatMap(i -> {
+                    Beer beer = new Beer();
+                    beer.setName("Concurrent " + i);
+                    beer.setBrand("Benchmark");
+                    beer.setMax(100);
+                    beer.setQuantity(50);
+                    beer.setType(BeerType.LAGER);
+                    return beerRepository.insert(beer);
+                })
+                .blockLast();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ThreadCounters {
+
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        public long peakThreads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            threads.resetPeakThreadCount();
+            peakThreads = 0;
+        }
+
+        void sample() {
+            peakThreads = Math.max(peakThreads, threads.getPeakThreadCount());
+        }
+    }
+}
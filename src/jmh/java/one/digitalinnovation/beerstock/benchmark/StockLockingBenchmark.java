@@ -0,0 +1,94 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Stock mutation throughput with 64 threads hammering a few hot beers, for each stock mode, relying only on database
+ * row locks ({@code stripedLocks=false}) versus queueing on in-process lock stripes first ({@code stripedLocks=true}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class StockLockingBenchmark {
+
+    private static final int MAX_STOCK = 1_000_000;
+
+    @Param({"1", "8", "64"})
+    public int hotBeers;
+
+    @Param({"false", "true"})
+    public boolean stripedLocks;
+
+    @Param({"atomic", "optimistic", "write-behind"})
+    public String stockMode;
+
+    private ConfigurableApplicationContext context;
+
+    private BeerService beerService;
+
+    private long[] beerIds;
+
+    private Path journalDirectory;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws IOException {
+        journalDirectory = Files.createTempDirectory("stock-journal");
+        context = BenchmarkApplication.start(
+                "beerstock.stock.mode=" + stockMode,
+                "beerstock.stock.write-behind.journal-directory=" + journalDirectory,
+                "beerstock.stock.striped-locks.enabled=" + stripedLocks);
+        beerService = context.getBean(BeerService.class);
+        beerIds = BenchmarkApplication.saveBeers(context, "Hot beer", hotBeers, MAX_STOCK)
+                .stream()
+                .mapToLong(Beer::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(journalDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void incrementOrDecrement(Blackhole blackhole) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = beerIds[random.nextInt(beerIds.length)];
+        if (random.nextBoolean()) {
+            blackhole.consume(beerService.increment(id, 1));
+        } else {
+            blackhole.consume(beerService.decrement(id, 1));
+        }
+    }
+}
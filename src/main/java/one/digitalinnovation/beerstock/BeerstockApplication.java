@@ -2,8 +2,14 @@ package one.digitalinnovation.beerstock;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
-@SpringBootApplication
+/**
+ * Servlet and JPA application. The reactive variant of the API is {@link one.digitalinnovation.beerstock.reactive.ReactiveBeerstockApplication}.
+ */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ConfigurationPropertiesScan
 public class BeerstockApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.name-filter")
+public class BeerNameFilterProperties {
+
+    private boolean enabled = true;
+
+    private int expectedNames = 1_000_000;
+
+    private double falsePositiveProbability = 0.01;
+}
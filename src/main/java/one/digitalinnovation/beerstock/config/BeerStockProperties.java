@@ -0,0 +1,69 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import one.digitalinnovation.beerstock.enums.StockMutationMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.stock")
+public class BeerStockProperties {
+
+    private StockMutationMode mode = StockMutationMode.ATOMIC;
+
+    private final Retry retry = new Retry();
+
+    private final HotBeers hotBeers = new HotBeers();
+
+    private final StripedLocks stripedLocks = new StripedLocks();
+
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    @Data
+    public static class Retry {
+
+        private int maxAttempts = 5;
+
+        private Duration initialBackoff = Duration.ofMillis(5);
+
+        private Duration maxBackoff = Duration.ofMillis(100);
+    }
+
+    /**
+     * Beers that get their own optimistic conflict counter, so hot beers show up without a meter per beer id.
+     */
+    @Data
+    public static class HotBeers {
+
+        /**
+         * Conflicts after which a beer gets its own counter.
+         */
+        private int conflictThreshold = 20;
+
+        /**
+         * At most this many beers get their own counter; later hot beers only count in the untagged one.
+         */
+        private int maxTracked = 20;
+    }
+
+    @Data
+    public static class StripedLocks {
+
+        private boolean enabled = false;
+
+        private int stripes = 64;
+    }
+
+    @Data
+    public static class WriteBehind {
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        private Path journalDirectory = Paths.get("stock-journal");
+
+        private boolean fsync = false;
+    }
+}
@@ -0,0 +1,42 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Catalog reads: lookups by name and listings.
+     */
+    private final Pool read = new Pool(16, 200, 2000);
+
+    /**
+     * Registrations, deletions and stock changes.
+     */
+    private final Pool write = new Pool(8, 100, 1000);
+
+    @Data
+    public static class Pool {
+
+        private int threads;
+
+        /**
+         * Calls waiting for a thread; calls beyond it are rejected with 503 instead of queueing.
+         */
+        private int queueCapacity;
+
+        /**
+         * With {@code beerstock.threads.virtual=true}: calls running at once, each on its own virtual thread, in place
+         * of threads and queue-capacity. Calls beyond it are rejected with 503.
+         */
+        private int maxConcurrentCalls;
+
+        public Pool(int threads, int queueCapacity, int maxConcurrentCalls) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+}
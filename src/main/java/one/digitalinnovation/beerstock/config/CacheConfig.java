@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are Caffeine backed; names, size and TTL are set through {@code spring.cache.*} and their hit, miss and
+ * eviction counts are published as {@code cache.*} metrics by the actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Keyed by {@link one.digitalinnovation.beerstock.entity.Beer#normalizeName(String) normalized name}, so every
+     * casing of a name shares one entry.
+     */
+    public static final String BEERS_BY_NAME = "beersByName";
+
+    public static final String NORMALIZED_NAME_KEY = "T(one.digitalinnovation.beerstock.entity.Beer).normalizeName(#name)";
+
+    public static final String NORMALIZED_RESULT_NAME_KEY = "T(one.digitalinnovation.beerstock.entity.Beer).normalizeName(#result.name)";
+}
@@ -0,0 +1,63 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * JCache (Caffeine) regions behind Hibernate's second-level and query caches. The regions are created here from
+ * {@code beerstock.hibernate-cache.*} and the cache manager is handed to Hibernate, which is switched to it by the
+ * {@code spring.jpa.properties.hibernate.cache.*} settings.
+ *
+ * <p>The update timestamps region, which tells Hibernate whether a cached query result is stale, must outlive every
+ * query result, so it is neither size-bounded nor expiring.</p>
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String BEER_REGION = "beers";
+    public static final String BEER_BY_NAME_QUERY_REGION = "beersByNameQuery";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        // one cache manager per application context: tests run several contexts in the same JVM
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("beerstock-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(BEER_REGION, regionConfiguration(properties.getEntity()));
+        cacheManager.createCache(BEER_BY_NAME_QUERY_REGION, regionConfiguration(properties.getQuery()));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, statisticsEnabled(new CaffeineConfiguration<>()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(HibernateCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        if (region.getExpireAfterAccess() != null) {
+            configuration.setExpireAfterAccess(OptionalLong.of(region.getExpireAfterAccess().toNanos()));
+        }
+        return statisticsEnabled(configuration);
+    }
+
+    private CaffeineConfiguration<Object, Object> statisticsEnabled(CaffeineConfiguration<Object, Object> configuration) {
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
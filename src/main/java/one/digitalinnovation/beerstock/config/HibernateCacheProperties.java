@@ -0,0 +1,33 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.hibernate-cache")
+public class HibernateCacheProperties {
+
+    private final Region entity = new Region(10_000, Duration.ofMinutes(10));
+
+    private final Region query = new Region(10_000, Duration.ofMinutes(1));
+
+    /**
+     * Size-bounded Caffeine region (W-TinyLFU eviction) with optional time-based expiry.
+     */
+    @Data
+    public static class Region {
+
+        private long maximumSize;
+
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+        public Region(long maximumSize, Duration expireAfterWrite) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a key is remembered: retries after that run the stock change again.
+     */
+    private Duration ttl = Duration.ofMinutes(2);
+
+    /**
+     * Keys kept in memory across all stripes, the oldest being forgotten first once full.
+     */
+    private int maxKeys = 2_000_000;
+
+    /**
+     * Independent locks the keys are spread over, rounded up to a power of two.
+     */
+    private int stripes = 256;
+
+    /**
+     * Whether results are also written to the idempotency_key table, so retries reaching another instance or arriving
+     * after a restart still find them.
+     */
+    private boolean persistent = false;
+}
@@ -0,0 +1,39 @@
+package one.digitalinnovation.beerstock.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.metrics.TimedValidator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+/**
+ * Layer timers: {@code beerstock.service} for {@code @Timed} service methods, {@code beerstock.repository},
+ * {@code beerstock.mapping} and {@code beerstock.validation}, plus the {@code beerstock.exceptions} counter. Percentile
+ * histograms are switched on per meter prefix through {@code management.metrics.distribution.*}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "beerstock.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public LocalValidatorFactoryBean beanValidator() {
+        return new LocalValidatorFactoryBean();
+    }
+
+    /**
+     * Used both for {@code @Valid} request bodies and by the services, in place of the default validator.
+     */
+    @Bean
+    @Primary
+    public TimedValidator validator(LocalValidatorFactoryBean beanValidator, MeterRegistry meterRegistry) {
+        return new TimedValidator(beanValidator, meterRegistry);
+    }
+}
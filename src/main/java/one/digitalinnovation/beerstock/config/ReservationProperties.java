@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.reservations")
+public class ReservationProperties {
+
+    /**
+     * How long units are held when the reservation request gives no ttl.
+     */
+    private Duration defaultTtl = Duration.ofMinutes(5);
+
+    /**
+     * Longest hold accepted: longer requested ttls are cut to it.
+     */
+    private Duration maxTtl = Duration.ofMinutes(30);
+
+    /**
+     * Resolution of the expirer: holds are released at most one tick after they expire.
+     */
+    private Duration tick = Duration.ofMillis(100);
+
+    /**
+     * Buckets of the timer wheel, rounded up to a power of two. Holds due more than wheel-size ticks ahead stay in
+     * their bucket for extra laps, so the wheel should span the usual ttl.
+     */
+    private int wheelSize = 4096;
+}
@@ -0,0 +1,34 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.stock-events")
+public class StockEventsProperties {
+
+    /**
+     * Events buffered per subscriber; a subscriber that falls this far behind is disconnected.
+     */
+    private int bufferSize = 256;
+
+    private int maxSubscribers = 1_000;
+
+    /**
+     * Threads writing events to subscribers, shared by all of them.
+     */
+    private int senderThreads = 4;
+
+    /**
+     * How long writing one event to a subscriber may take: a subscriber whose write stalls longer, like a client that
+     * stopped reading with its socket buffers full, is disconnected and its sender thread replaced.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a subscription stays open; clients reconnect afterwards.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -1,27 +1,49 @@
 package one.digitalinnovation.beerstock.controller;
 
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.BeerBatchResultDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
-import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
-import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
-import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.BeerBatchTooLargeException;
+import one.digitalinnovation.beerstock.exception.StockAdjustmentModeNotSupportedException;
+import one.digitalinnovation.beerstock.exception.StockEventSubscribersExceededException;
+import one.digitalinnovation.beerstock.service.AsyncBeerService;
+import one.digitalinnovation.beerstock.service.BeerCatalogExporter;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.service.BeerStockAdjustmentService;
+import one.digitalinnovation.beerstock.service.IdempotencyKeyStore;
+import one.digitalinnovation.beerstock.service.StockEventBroadcaster;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/beers")
@@ -29,36 +51,111 @@ import java.util.List;
 public class BeerController implements BeerControllerDocs {
 
     private final BeerService beerService;
+    private final AsyncBeerService asyncBeerService;
+    private final BeerCatalogExporter beerCatalogExporter;
+    private final BeerStockAdjustmentService beerStockAdjustmentService;
+    private final StockEventBroadcaster stockEventBroadcaster;
+    private final IdempotencyKeyStore idempotencyKeyStore;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public BeerDTO createBeer(@RequestBody @Valid BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
-        return beerService.createBeer(beerDTO);
+    public CompletableFuture<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
+        return asyncBeerService.createBeer(beerDTO);
+    }
+
+    @PostMapping("/batch")
+    public List<BeerBatchResultDTO> createBeers(@RequestBody List<BeerDTO> beerDTOs) throws BeerBatchTooLargeException, BeerAlreadyRegisteredException {
+        return beerService.createBeers(beerDTOs);
+    }
+
+    @PostMapping("/stock-adjustments")
+    public List<StockAdjustmentResultDTO> adjustStock(@RequestBody @Valid StockAdjustmentBatchDTO stockAdjustmentBatchDTO) throws StockAdjustmentModeNotSupportedException {
+        return beerStockAdjustmentService.adjust(stockAdjustmentBatchDTO);
+    }
+
+    @GetMapping("/autocomplete")
+    public List<BeerSuggestionDTO> autocomplete(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return beerService.autocomplete(prefix, limit);
+    }
+
+    @GetMapping(value = "/stock-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockEvents() throws StockEventSubscribersExceededException {
+        return stockEventBroadcaster.subscribe();
     }
 
     @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
-        return beerService.findByName(name);
+    public CompletableFuture<BeerDTO> findByName(@PathVariable String name) {
+        return asyncBeerService.findByName(name);
     }
 
     @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    public CompletableFuture<ResponseEntity<List<BeerDTO>>> listBeers(@Valid BeerFilterDTO filter,
+                                                                      @RequestParam(required = false) Long after,
+                                                                      @RequestParam(defaultValue = "0") int page,
+                                                                      @RequestParam(defaultValue = "20") int size,
+                                                                      @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged && filter.isEmpty()) {
+            return asyncBeerService.listAll().thenApply(ResponseEntity::ok);
+        }
+        UriComponentsBuilder requestUri = ServletUriComponentsBuilder.fromCurrentRequest();
+        CompletableFuture<BeerPageDTO> beerPage;
+        if (!filter.isEmpty()) {
+            beerPage = asyncBeerService.listFiltered(filter, after, size);
+        } else if (after != null) {
+            beerPage = asyncBeerService.listAfter(after, size);
+        } else {
+            beerPage = asyncBeerService.listPage(page, size);
+        }
+        return beerPage.thenApply(foundPage -> BeerPageResponses.toResponse(foundPage, requestUri));
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportBeers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(BeerCatalogExporter.NDJSON_MEDIA_TYPE))
+                .body(beerCatalogExporter::exportAll);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteById(@PathVariable Long id) throws BeerNotFoundException {
-        beerService.deleteById(id);
+    public CompletableFuture<Void> deleteById(@PathVariable Long id) {
+        return asyncBeerService.deleteById(id);
     }
 
     @PatchMapping("/{id}/increment")
-    public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
-        return beerService.increment(id, quantityDTO.getQuantity());
+    public CompletableFuture<BeerDTO> increment(@PathVariable Long id,
+                                                @RequestBody @Valid QuantityDTO quantityDTO,
+                                                @RequestHeader(name = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyKeyStore.execute(idempotencyKey, "increment:" + id + ":" + quantityDTO.getQuantity(),
+                () -> asyncBeerService.increment(id, quantityDTO.getQuantity()));
     }
 
     @PatchMapping("/{id}/decrement")
-    public BeerDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockInsufficientException {
-        return beerService.decrement(id, quantityDTO.getQuantity());
+    public CompletableFuture<BeerDTO> decrement(@PathVariable Long id,
+                                                @RequestBody @Valid QuantityDTO quantityDTO,
+                                                @RequestHeader(name = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyKeyStore.execute(idempotencyKey, "decrement:" + id + ":" + quantityDTO.getQuantity(),
+                () -> asyncBeerService.decrement(id, quantityDTO.getQuantity()));
+    }
+
+    @PostMapping("/{id}/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<ReservationDTO> reserve(@PathVariable Long id,
+                                                     @RequestBody @Valid ReservationRequestDTO reservationRequestDTO) {
+        return asyncBeerService.reserve(id, reservationRequestDTO);
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public CompletableFuture<BeerDTO> commitReservation(@PathVariable String reservationId,
+                                                        @RequestHeader(name = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyKeyStore.execute(idempotencyKey, "commit:" + reservationId,
+                () -> asyncBeerService.commitReservation(reservationId));
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public CompletableFuture<Void> releaseReservation(@PathVariable String reservationId) {
+        return asyncBeerService.releaseReservation(reservationId);
     }
 }
@@ -0,0 +1,55 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.dto.ErrorDTO;
+import one.digitalinnovation.beerstock.exception.BeerDomainException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Renders business failures directly from the status each exception declares, instead of resolving
+ * {@code @ResponseStatus} and forwarding to the error page. Requests that cannot take JSON, such as stock event
+ * subscriptions, only get the status.
+ */
+@RestControllerAdvice
+public class BeerControllerAdvice {
+
+    @ExceptionHandler(BeerDomainException.class)
+    public ResponseEntity<ErrorDTO> handleDomainException(BeerDomainException exception, HttpServletRequest request) {
+        HttpStatus status = exception.getStatus();
+        if (!acceptsJson(request)) {
+            return ResponseEntity.status(status).build();
+        }
+        ErrorDTO error = ErrorDTO.builder()
+                .timestamp(Instant.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Both the handler's {@code produces} and the {@code Accept} header must allow JSON, or writing the error fails
+     * with {@link org.springframework.web.HttpMediaTypeNotAcceptableException}.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean acceptsJson(HttpServletRequest request) {
+        Set<MediaType> producible = (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        if (producible != null && !producible.isEmpty()
+                && producible.stream().noneMatch(MediaType.APPLICATION_JSON::isCompatibleWith)) {
+            return false;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null || MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.APPLICATION_JSON::isCompatibleWith);
+    }
+}
@@ -4,16 +4,29 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import io.swagger.annotations.ResponseHeader;
+import one.digitalinnovation.beerstock.dto.BeerBatchResultDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
-import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
-import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerBatchTooLargeException;
+import one.digitalinnovation.beerstock.exception.StockAdjustmentModeNotSupportedException;
+import one.digitalinnovation.beerstock.exception.StockEventSubscribersExceededException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Api("Manages beer stock")
 public interface BeerControllerDocs {
@@ -21,27 +34,100 @@ public interface BeerControllerDocs {
     @ApiOperation(value = "Beer creation operation")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Success beer creation"),
-            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value."),
+            @ApiResponse(code = 503, message = "Too many writes waiting, try again later.")
     })
-    BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
+    CompletableFuture<BeerDTO> createBeer(BeerDTO beerDTO);
+
+    @ApiOperation(value = "Registers up to 1000 beers in a single transaction, reporting the outcome of each item")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One result per beer, in request order: CREATED, DUPLICATE or INVALID"),
+            @ApiResponse(code = 400, message = "Batch too large, or a name was registered concurrently and nothing was created.")
+    })
+    List<BeerBatchResultDTO> createBeers(List<BeerDTO> beerDTOs) throws BeerBatchTooLargeException, BeerAlreadyRegisteredException;
+
+    @ApiOperation(value = "Applies many stock increments (positive delta) and decrements (negative delta) in one transaction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One result per adjustment, in request order"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value or mode not supported by the stock mode.")
+    })
+    List<StockAdjustmentResultDTO> adjustStock(StockAdjustmentBatchDTO stockAdjustmentBatchDTO) throws StockAdjustmentModeNotSupportedException;
+
+    @ApiOperation(value = "Returns up to 'limit' (at most 50) beers whose name or brand starts with the prefix, ignoring case")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Matching beers, in alphabetical order of the matching name or brand"),
+    })
+    List<BeerSuggestionDTO> autocomplete(String prefix, int limit);
+
+    @ApiOperation(value = "Subscribes to Server-Sent Events carrying every committed stock change "
+            + "(CREATED, INCREMENTED, DECREMENTED, ADJUSTED, DELETED). Clients that fall behind are disconnected")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Event stream, one JSON event per change"),
+            @ApiResponse(code = 503, message = "Too many subscribers, try again later.")
+    })
+    SseEmitter streamStockEvents() throws StockEventSubscribersExceededException;
 
     @ApiOperation(value = "Returns beer found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success beer found in the system"),
-            @ApiResponse(code = 404, message = "Beer with given name not found.")
+            @ApiResponse(code = 404, message = "Beer with given name not found."),
+            @ApiResponse(code = 503, message = "Too many reads waiting, try again later.")
     })
-    BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
+    CompletableFuture<BeerDTO> findByName(@PathVariable String name);
 
-    @ApiOperation(value = "Returns a list of all beers registered in the system")
+    @ApiOperation(value = "Returns a page of the beers registered in the system as an array, ordered by id. "
+            + "Pass the X-Next-Cursor header as 'after' to read the next page, or follow the Link header with rel=next; "
+            + "unpaged=true gets every beer at once. "
+            + "Filtering by type, brand, minQuantity, maxQuantity, minFillRatio or maxFillRatio pages by cursor only")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(code = 200, message = "Page of beers registered in the system", responseHeaders = {
+                    @ResponseHeader(name = BeerPageResponses.NEXT_CURSOR_HEADER, response = Long.class,
+                            description = "Id to pass as 'after' for the next page, absent on the last page")
+            }),
+            @ApiResponse(code = 400, message = "Negative quantity or fill ratio outside [0, 1]."),
+            @ApiResponse(code = 503, message = "Too many reads waiting, try again later.")
     })
-    List<BeerDTO> listBeers();
+    CompletableFuture<ResponseEntity<List<BeerDTO>>> listBeers(BeerFilterDTO filter, Long after, int page, int size, boolean unpaged);
+
+    @ApiOperation(value = "Streams every beer registered in the system as newline-delimited JSON (format=ndjson)")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One beer per line, ordered by id"),
+    })
+    ResponseEntity<StreamingResponseBody> exportBeers();
 
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
             @ApiResponse(code = 204, message = "Success beer deleted in the system"),
-            @ApiResponse(code = 404, message = "Beer with given id not found.")
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 503, message = "Too many writes waiting, try again later.")
+    })
+    CompletableFuture<Void> deleteById(@PathVariable Long id);
+
+    @ApiOperation(value = "Holds units of a beer for ttlSeconds (default 5 minutes, at most 30) until committed or released. "
+            + "Held units are out of reach of decrements and other reservations")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Reservation id, expiry and the units left available"),
+            @ApiResponse(code = 400, message = "Missing quantity, wrong field range value or not enough available stock."),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 503, message = "Too many writes waiting, try again later.")
+    })
+    CompletableFuture<ReservationDTO> reserve(@PathVariable Long id, ReservationRequestDTO reservationRequestDTO);
+
+    @ApiOperation(value = "Decrements the units held by a reservation from the stock and ends it")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beer with its decremented stock, or the stored result when the Idempotency-Key was already used"),
+            @ApiResponse(code = 404, message = "Reservation already committed, released or expired, or its beer was deleted."),
+            @ApiResponse(code = 409, message = "A commit with the same Idempotency-Key is still being processed."),
+            @ApiResponse(code = 422, message = "Idempotency-Key already used for a different request."),
+            @ApiResponse(code = 503, message = "Too many writes waiting, try again later.")
+    })
+    CompletableFuture<BeerDTO> commitReservation(@PathVariable String reservationId, String idempotencyKey);
+
+    @ApiOperation(value = "Releases the units held by a reservation without changing the stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Reservation released"),
+            @ApiResponse(code = 404, message = "Reservation already committed, released or expired."),
+            @ApiResponse(code = 503, message = "Too many writes waiting, try again later.")
     })
-    void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+    CompletableFuture<Void> releaseReservation(@PathVariable String reservationId);
 }
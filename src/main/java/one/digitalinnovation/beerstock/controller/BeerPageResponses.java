@@ -0,0 +1,40 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Answers a page of beers with the plain JSON array {@code GET /api/v1/beers} has always returned, moving the cursor
+ * of the next page to headers: {@value #NEXT_CURSOR_HEADER} holds the id to pass as {@code after}, and {@code Link}
+ * the URL of the next page with {@code rel="next"}. The last page has neither.
+ */
+public final class BeerPageResponses {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private BeerPageResponses() {
+    }
+
+    /**
+     * @param requestUri the URI of the request, already encoded; the next page keeps its filters and size
+     */
+    public static ResponseEntity<List<BeerDTO>> toResponse(BeerPageDTO beerPage, UriComponentsBuilder requestUri) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        Long nextCursor = beerPage.getNextCursor();
+        if (nextCursor != null) {
+            String nextPage = requestUri.cloneBuilder()
+                    .replaceQueryParam("after", nextCursor)
+                    .replaceQueryParam("page")
+                    .build(true)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor))
+                    .header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+        }
+        return response.body(beerPage.getBeers());
+    }
+}
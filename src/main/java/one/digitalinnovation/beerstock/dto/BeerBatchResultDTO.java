@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.BeerBatchItemStatus;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerBatchResultDTO {
+
+    private int index;
+
+    private BeerBatchItemStatus status;
+
+    private BeerDTO beer;
+
+    private List<String> errors;
+}
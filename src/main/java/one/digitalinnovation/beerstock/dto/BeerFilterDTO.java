@@ -0,0 +1,48 @@
+package one.digitalinnovation.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+
+/**
+ * Catalog filter bound from the query string of GET /api/v1/beers. Every criterion is optional; the fill ratio is
+ * {@code quantity / max}, between 0 (empty) and 1 (full).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerFilterDTO {
+
+    private BeerType type;
+
+    private String brand;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @Min(0)
+    private Integer maxQuantity;
+
+    @DecimalMin("0")
+    @DecimalMax("1")
+    private Double minFillRatio;
+
+    @DecimalMin("0")
+    @DecimalMax("1")
+    private Double maxFillRatio;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return type == null && brand == null
+                && minQuantity == null && maxQuantity == null
+                && minFillRatio == null && maxFillRatio == null;
+    }
+}
@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Error body with the same fields as Spring Boot's default error response.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorDTO {
+
+    private Instant timestamp;
+
+    private int status;
+
+    private String error;
+
+    private String message;
+
+    private String path;
+}
@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+
+    private String id;
+
+    private Long beerId;
+
+    private int quantity;
+
+    private Instant expiresAt;
+
+    /**
+     * Units of the beer left for other decrements and reservations once this one is held.
+     */
+    private int available;
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentMode;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentBatchDTO {
+
+    @NotNull
+    @Builder.Default
+    private StockAdjustmentMode mode = StockAdjustmentMode.ALL_OR_NOTHING;
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<StockAdjustmentDTO> adjustments;
+}
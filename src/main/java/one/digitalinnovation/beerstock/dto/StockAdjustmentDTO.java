@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDTO {
+
+    @NotNull
+    private Long id;
+
+    /**
+     * Positive to increment the stock, negative to decrement it.
+     */
+    @NotNull
+    @Min(-100)
+    @Max(100)
+    private Integer delta;
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResultDTO {
+
+    private int index;
+
+    private Long id;
+
+    private Integer delta;
+
+    private StockAdjustmentStatus status;
+
+    /**
+     * Stock of the beer after this adjustment, when it was applied.
+     */
+    private Integer quantity;
+
+    private String reason;
+}
@@ -0,0 +1,39 @@
+package one.digitalinnovation.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.StockEventType;
+
+/**
+ * Stock change published once it is committed, and pushed to the subscribers of GET /api/v1/beers/stock-events.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockEventDTO {
+
+    private StockEventType type;
+
+    private Long id;
+
+    private String name;
+
+    private Integer quantity;
+
+    private Integer max;
+
+    public static StockEventDTO of(StockEventType type, BeerDTO beerDTO) {
+        return StockEventDTO.builder()
+                .type(type)
+                .id(beerDTO.getId())
+                .name(beerDTO.getName())
+                .quantity(beerDTO.getQuantity())
+                .max(beerDTO.getMax())
+                .build();
+    }
+}
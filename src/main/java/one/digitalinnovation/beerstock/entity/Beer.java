@@ -3,8 +3,12 @@ package one.digitalinnovation.beerstock.entity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.config.HibernateCacheConfig;
 import one.digitalinnovation.beerstock.enums.BeerType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -12,20 +16,49 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.BEER_REGION)
+@Table(indexes = {
+        // id last so filtered listings read the index in keyset order and stop after one page
+        @Index(name = "idx_beer_type_id", columnList = "type, id"),
+        @Index(name = "idx_beer_brand_id", columnList = "brand, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
 
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Pooled sequence rather than identity, so Hibernate can assign ids up front and batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_sequence")
+    @SequenceGenerator(name = "beer_sequence", sequenceName = "beer_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String name;
 
+    /**
+     * Trimmed, lowercased and accent-free name, unique so that "Brahma" and " BRAHMA " are the same beer.
+     * Set from {@link #name} whenever the beer is saved.
+     */
+    @Column(nullable = false, unique = true)
+    private String normalizedName;
+
     @Column(nullable = false)
     private String brand;
 
@@ -39,5 +72,33 @@ public class Beer {
     @Column(nullable = false)
     private BeerType type;
 
+    @Version
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        normalizedName = normalizeName(name);
+    }
+
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmedName = name.trim();
+        if (isAscii(trimmedName)) {
+            return trimmedName.toLowerCase(Locale.ROOT);
+        }
+        String decomposedName = Normalizer.normalize(trimmedName, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposedName).replaceAll("").toLowerCase(Locale.ROOT);
+    }
 
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
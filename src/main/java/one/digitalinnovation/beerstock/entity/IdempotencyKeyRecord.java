@@ -0,0 +1,43 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Claim on an {@code Idempotency-Key} and, once its stock change succeeded, the result, kept when idempotency keys are
+ * persistent.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_expires_at", columnList = "expires_at"))
+public class IdempotencyKeyRecord {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    /**
+     * Operation, beer id and quantity of the request that first used the key.
+     */
+    @Column(nullable = false)
+    private String fingerprint;
+
+    /**
+     * The resulting beer, as JSON, or {@code null} while the stock change is in flight.
+     */
+    @Column(length = 2048)
+    private String response;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
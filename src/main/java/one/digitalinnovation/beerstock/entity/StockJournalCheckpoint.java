@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Last stock journal segment whose deltas are already applied to the beer table. Written in the same transaction as
+ * the deltas themselves, so a journal replay never applies a segment twice.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockJournalCheckpoint {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long segment;
+}
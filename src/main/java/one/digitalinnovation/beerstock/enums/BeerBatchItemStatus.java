@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerBatchItemStatus {
+
+    CREATED("Beer registered"),
+    DUPLICATE("A beer with the same name is already registered or appears earlier in the batch"),
+    INVALID("Missing required fields or wrong field range value");
+
+    private final String description;
+}
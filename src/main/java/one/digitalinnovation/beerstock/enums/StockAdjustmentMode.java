@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockAdjustmentMode {
+
+    ALL_OR_NOTHING("Nothing is applied unless every adjustment can be applied"),
+    BEST_EFFORT("Every adjustment that can be applied is applied, the others are reported");
+
+    private final String description;
+}
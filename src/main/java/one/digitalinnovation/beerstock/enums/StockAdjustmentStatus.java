@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockAdjustmentStatus {
+
+    APPLIED("Adjustment applied"),
+    NOT_FOUND("Beer with given id not found"),
+    STOCK_EXCEEDED("Adjustment exceeds the max stock capacity"),
+    STOCK_INSUFFICIENT("Insufficient stock for the adjustment"),
+    CONFLICT("Concurrent stock changes kept the adjustment from being applied"),
+    ROLLED_BACK("Adjustment valid but not applied because another adjustment of the batch failed");
+
+    private final String description;
+}
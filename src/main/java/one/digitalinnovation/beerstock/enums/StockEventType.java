@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockEventType {
+
+    CREATED("Beer registered"),
+    INCREMENTED("Stock incremented"),
+    DECREMENTED("Stock decremented"),
+    ADJUSTED("Stock changed by a batch of adjustments"),
+    DELETED("Beer removed");
+
+    private final String description;
+}
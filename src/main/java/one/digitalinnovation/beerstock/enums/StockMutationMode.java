@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockMutationMode {
+
+    ATOMIC("Single conditional update statement"),
+    OPTIMISTIC("Versioned read-modify-write with bounded retry"),
+    WRITE_BEHIND("In-memory counters journaled locally and flushed to the database in batches");
+
+    private final String description;
+}
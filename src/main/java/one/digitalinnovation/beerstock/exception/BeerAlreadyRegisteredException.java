@@ -1,12 +1,15 @@
 package one.digitalinnovation.beerstock.exception;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
 
-@ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BeerAlreadyRegisteredException extends Exception{
+public class BeerAlreadyRegisteredException extends BeerDomainException {
 
     public BeerAlreadyRegisteredException(String beerName) {
-        super(String.format("Beer with name %s already registered in the system.", beerName));
+        super("Beer with name %s already registered in the system.", beerName);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
     }
 }
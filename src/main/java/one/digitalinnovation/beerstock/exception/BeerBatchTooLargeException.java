@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class BeerBatchTooLargeException extends BeerDomainException {
+
+    public BeerBatchTooLargeException(int batchSize, int maxBatchSize) {
+        super("Batch of %s beers exceeds the limit of %s beers per request.", batchSize, maxBatchSize);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
@@ -0,0 +1,40 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base of the exceptions thrown for expected business failures, such as lookups of unknown beers or stock changes out
+ * of bounds. They are part of normal control flow, so they skip the stack trace capture and only format their message
+ * when it is read. Stack traces can be turned back on for debugging with {@code -Dbeerstock.exceptions.stack-traces=true}.
+ *
+ * <p>{@link one.digitalinnovation.beerstock.controller.BeerControllerAdvice} turns them into responses with
+ * {@link #getStatus()}.</p>
+ */
+public abstract class BeerDomainException extends Exception {
+
+    private static final boolean STACK_TRACES = Boolean.getBoolean("beerstock.exceptions.stack-traces");
+
+    private final String messageFormat;
+
+    private final Object[] messageArguments;
+
+    private String message;
+
+    protected BeerDomainException(String messageFormat, Object... messageArguments) {
+        super(null, null, false, STACK_TRACES);
+        this.messageFormat = messageFormat;
+        this.messageArguments = messageArguments;
+    }
+
+    public abstract HttpStatus getStatus();
+
+    @Override
+    public String getMessage() {
+        String formattedMessage = message;
+        if (formattedMessage == null && messageFormat != null) {
+            formattedMessage = String.format(messageFormat, messageArguments);
+            message = formattedMessage;
+        }
+        return formattedMessage;
+    }
+}
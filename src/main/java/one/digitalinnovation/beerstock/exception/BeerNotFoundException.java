@@ -1,16 +1,19 @@
 package one.digitalinnovation.beerstock.exception;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
 
-@ResponseStatus(HttpStatus.NOT_FOUND)
-public class BeerNotFoundException extends Exception {
+public class BeerNotFoundException extends BeerDomainException {
 
     public BeerNotFoundException(String beerName) {
-        super(String.format("Beer with name %s not found in the system.", beerName));
+        super("Beer with name %s not found in the system.", beerName);
     }
 
     public BeerNotFoundException(Long id) {
-        super(String.format("Beer with id %s not found in the system.", id));
+        super("Beer with id %s not found in the system.", id);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
     }
 }
@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class BeerStockConflictException extends BeerDomainException {
+
+    public BeerStockConflictException(Long id, int attempts) {
+        super("Stock of beer with ID %s could not be updated after %s concurrent modification attempts.", id, attempts);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
@@ -1,12 +1,15 @@
 package one.digitalinnovation.beerstock.exception;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
 
-@ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BeerStockExceededException extends Exception {
+public class BeerStockExceededException extends BeerDomainException {
 
     public BeerStockExceededException(Long id, int quantityToIncrement) {
-        super(String.format("Beers with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement));
+        super("Beers with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
     }
 }
@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class BulkheadFullException extends BeerDomainException {
+
+    /**
+     * @param limit calls the bulkhead lets wait, or run at once when calls run on virtual threads
+     */
+    public BulkheadFullException(String bulkhead, int limit) {
+        super("The %s bulkhead is full with %s calls, try again later.", bulkhead, limit);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
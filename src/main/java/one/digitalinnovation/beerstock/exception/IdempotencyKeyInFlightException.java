@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyInFlightException extends BeerDomainException {
+
+    public IdempotencyKeyInFlightException(String idempotencyKey) {
+        super("A request with Idempotency-Key %s is still being processed, retry later.", idempotencyKey);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ReservationNotFoundException extends BeerDomainException {
+
+    public ReservationNotFoundException(String reservationId) {
+        super("Reservation %s not found: it was already committed, released or has expired.", reservationId);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
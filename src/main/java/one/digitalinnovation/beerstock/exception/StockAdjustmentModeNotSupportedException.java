@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class StockAdjustmentModeNotSupportedException extends BeerDomainException {
+
+    public StockAdjustmentModeNotSupportedException(String adjustmentMode, String stockMode) {
+        super("Stock adjustment mode %s is not supported with stock mode %s.", adjustmentMode, stockMode);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
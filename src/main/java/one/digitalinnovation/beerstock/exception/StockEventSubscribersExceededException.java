@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class StockEventSubscribersExceededException extends BeerDomainException {
+
+    public StockEventSubscribersExceededException(int maxSubscribers) {
+        super("Stock events already have the maximum of %s subscribers, try again later.", maxSubscribers);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.mapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link BeerMapper} bean recording each conversion in the {@code beerstock.mapping} timer.
+ */
+@Component
+public class TimedBeerMapper implements BeerMapper {
+
+    public static final String TIMER_NAME = "beerstock.mapping";
+
+    private final BeerMapper delegate = BeerMapper.INSTANCE;
+    private final Timer toModelTimer;
+    private final Timer toDTOTimer;
+
+    @Autowired
+    public TimedBeerMapper(MeterRegistry meterRegistry) {
+        this.toModelTimer = meterRegistry.timer(TIMER_NAME, "method", "toModel");
+        this.toDTOTimer = meterRegistry.timer(TIMER_NAME, "method", "toDTO");
+    }
+
+    @Override
+    public Beer toModel(BeerDTO beerDTO) {
+        return toModelTimer.record(() -> delegate.toModel(beerDTO));
+    }
+
+    @Override
+    public BeerDTO toDTO(Beer beer) {
+        return toDTOTimer.record(() -> delegate.toDTO(beer));
+    }
+}
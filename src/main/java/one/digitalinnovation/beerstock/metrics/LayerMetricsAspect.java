@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Times every Spring Data repository call ({@code beerstock.repository}, tagged with repository, method and thrown
+ * exception) and counts the exceptions leaving the controllers ({@code beerstock.exceptions}, tagged with their type).
+ */
+@Aspect
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class LayerMetricsAspect {
+
+    public static final String REPOSITORY_TIMER = "beerstock.repository";
+    public static final String EXCEPTION_COUNTER = "beerstock.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(REPOSITORY_TIMER,
+                    "repository", repositoryName(joinPoint),
+                    "method", joinPoint.getSignature().getName(),
+                    "exception", exception));
+        }
+    }
+
+    @AfterThrowing(pointcut = "within(one.digitalinnovation.beerstock.controller..*)", throwing = "exception")
+    public void countException(Throwable exception) {
+        meterRegistry.counter(EXCEPTION_COUNTER, "exception", exception.getClass().getSimpleName()).increment();
+    }
+
+    /**
+     * Endpoints answering with a future fail through it rather than by throwing. The returned future completes only
+     * once the failure is counted, with the same unwrapped exception.
+     */
+    @Around("within(one.digitalinnovation.beerstock.controller..*) && execution(java.util.concurrent.CompletableFuture *(..))")
+    public Object countAsyncException(ProceedingJoinPoint joinPoint) throws Throwable {
+        CompletableFuture<?> result = (CompletableFuture<?>) joinPoint.proceed();
+        CompletableFuture<Object> counted = new CompletableFuture<>();
+        result.whenComplete((value, exception) -> {
+            if (exception == null) {
+                counted.complete(value);
+                return;
+            }
+            Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                    ? exception.getCause()
+                    : exception;
+            countException(cause);
+            counted.completeExceptionally(cause);
+        });
+        return counted;
+    }
+
+    private String repositoryName(JoinPoint joinPoint) {
+        return Arrays.stream(AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis()))
+                .filter(Repository.class::isAssignableFrom)
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(joinPoint.getSignature().getDeclaringType().getSimpleName());
+    }
+}
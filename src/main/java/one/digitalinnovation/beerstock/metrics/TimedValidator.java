@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.Set;
+
+/**
+ * Bean validation that records every validation in the {@code beerstock.validation} timer, tagged with the validated
+ * type. Being a {@link SpringValidatorAdapter}, it serves Spring MVC's {@code @Valid} as well as direct callers.
+ */
+public class TimedValidator extends SpringValidatorAdapter {
+
+    public static final String TIMER_NAME = "beerstock.validation";
+
+    private final MeterRegistry meterRegistry;
+
+    public TimedValidator(Validator targetValidator, MeterRegistry meterRegistry) {
+        super(targetValidator);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        timerFor(target).record(() -> super.validate(target, errors));
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        timerFor(target).record(() -> super.validate(target, errors, validationHints));
+    }
+
+    @Override
+    public <T> Set<ConstraintViolation<T>> validate(T object, Class<?>... groups) {
+        return timerFor(object).record(() -> super.validate(object, groups));
+    }
+
+    private Timer timerFor(Object target) {
+        String targetType = target == null ? "null" : target.getClass().getSimpleName();
+        return meterRegistry.timer(TIMER_NAME, "target", targetType);
+    }
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Reactive variant of the beer API: WebFlux on Netty in front of R2DBC, serving the core of the /api/v1/beers contract
+ * without blocking a thread on any database call.
+ *
+ * <p>Everything reactive lives in this package and only loads in a reactive web application, so the servlet
+ * {@link one.digitalinnovation.beerstock.BeerstockApplication} skips it while scanning and this application sees
+ * nothing of the servlet and JPA stack.</p>
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBeerstockApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBeerstockApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+}
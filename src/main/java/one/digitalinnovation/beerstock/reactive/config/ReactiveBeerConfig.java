@@ -0,0 +1,56 @@
+package one.digitalinnovation.beerstock.reactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import one.digitalinnovation.beerstock.service.BeerCatalogExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBeerConfig {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType(BeerCatalogExporter.NDJSON_MEDIA_TYPE);
+
+    /**
+     * Tomcat is on the classpath for the servlet application and would otherwise be picked first.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * There is no Hibernate to generate the schema here, so it is created from {@code schema-reactive.sql}.
+     */
+    @Bean
+    public ConnectionFactoryInitializer schemaInitializer(ConnectionFactory connectionFactory) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("schema-reactive.sql")));
+        return initializer;
+    }
+
+    /**
+     * Writes {@code Flux} bodies requested as NDJSON one element per line as they arrive, like the servlet export.
+     */
+    @Bean
+    public CodecCustomizer ndjsonStreamingCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> {
+            Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper,
+                    MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), NDJSON);
+            encoder.setStreamingMediaTypes(List.of(MediaType.APPLICATION_STREAM_JSON, NDJSON));
+            configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package one.digitalinnovation.beerstock.reactive.controller;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.controller.BeerPageResponses;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.reactive.service.ReactiveBeerService;
+import one.digitalinnovation.beerstock.service.BeerCatalogExporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Same paths, parameters and bodies as {@link one.digitalinnovation.beerstock.controller.BeerController} for
+ * registration, lookup, listing, NDJSON export, deletion and stock changes.
+ */
+@RestController
+@RequestMapping("/api/v1/beers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerController {
+
+    private final ReactiveBeerService beerService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
+        return beerService.createBeer(beerDTO);
+    }
+
+    @GetMapping("/{name}")
+    public Mono<BeerDTO> findByName(@PathVariable String name) {
+        return beerService.findByName(name);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<BeerDTO>>> listBeers(@RequestParam(required = false) Long after,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @RequestParam(defaultValue = "false") boolean unpaged,
+                                                         ServerHttpRequest request) {
+        if (unpaged) {
+            return beerService.listAll()
+                    .collectList()
+                    .map(ResponseEntity::ok);
+        }
+        Mono<BeerPageDTO> beerPage = after != null
+                ? beerService.listAfter(after, size)
+                : beerService.listPage(page, size);
+        return beerPage.map(foundPage -> BeerPageResponses.toResponse(foundPage, UriComponentsBuilder.fromHttpRequest(request)));
+    }
+
+    /**
+     * Streams the catalog one JSON line per beer as rows come back from the database.
+     */
+    @GetMapping(params = "format=ndjson", produces = BeerCatalogExporter.NDJSON_MEDIA_TYPE)
+    public Flux<BeerDTO> exportBeers() {
+        return beerService.listAll();
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return beerService.deleteById(id);
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<BeerDTO> increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.increment(id, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public Mono<BeerDTO> decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.decrement(id, quantityDTO.getQuantity());
+    }
+}
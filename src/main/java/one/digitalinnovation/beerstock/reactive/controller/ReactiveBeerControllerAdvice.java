@@ -0,0 +1,34 @@
+package one.digitalinnovation.beerstock.reactive.controller;
+
+import one.digitalinnovation.beerstock.dto.ErrorDTO;
+import one.digitalinnovation.beerstock.exception.BeerDomainException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+
+/**
+ * Reactive counterpart of {@link one.digitalinnovation.beerstock.controller.BeerControllerAdvice}, with the same
+ * error body.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBeerControllerAdvice {
+
+    @ExceptionHandler(BeerDomainException.class)
+    public ResponseEntity<ErrorDTO> handleDomainException(BeerDomainException exception, ServerWebExchange exchange) {
+        HttpStatus status = exception.getStatus();
+        ErrorDTO error = ErrorDTO.builder()
+                .timestamp(Instant.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -0,0 +1,131 @@
+package one.digitalinnovation.beerstock.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC access to the beer table, written against {@link DatabaseClient} with the same statements the JPA repository
+ * generates, including the conditional stock updates.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerRepository {
+
+    private static final String COLUMNS = "id, name, normalized_name, brand, max, quantity, type, version";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Beer> findById(Long id) {
+        return databaseClient.execute("select " + COLUMNS + " from beer where id = :id")
+                .bind("id", id)
+                .map(ReactiveBeerRepository::toBeer)
+                .one();
+    }
+
+    public Mono<Beer> findByNormalizedName(String normalizedName) {
+        return databaseClient.execute("select " + COLUMNS + " from beer where normalized_name = :normalizedName")
+                .bind("normalizedName", normalizedName)
+                .map(ReactiveBeerRepository::toBeer)
+                .one();
+    }
+
+    /**
+     * Every beer in id order, emitted as rows arrive rather than collected first.
+     */
+    public Flux<Beer> findAll() {
+        return databaseClient.execute("select " + COLUMNS + " from beer order by id")
+                .map(ReactiveBeerRepository::toBeer)
+                .all();
+    }
+
+    public Flux<Beer> findPage(long offset, int size) {
+        return databaseClient.execute("select " + COLUMNS + " from beer order by id limit :size offset :offset")
+                .bind("size", size)
+                .bind("offset", offset)
+                .map(ReactiveBeerRepository::toBeer)
+                .all();
+    }
+
+    public Flux<Beer> findByIdGreaterThan(Long afterId, int size) {
+        return databaseClient.execute("select " + COLUMNS + " from beer where id > :afterId order by id limit :size")
+                .bind("afterId", afterId)
+                .bind("size", size)
+                .map(ReactiveBeerRepository::toBeer)
+                .all();
+    }
+
+    /**
+     * Inserts the beer with an id from the shared sequence and returns it as stored.
+     */
+    public Mono<Beer> insert(Beer beer) {
+        return databaseClient.execute("select next value for beer_sequence")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.execute("insert into beer (" + COLUMNS + ") "
+                        + "values (:id, :name, :normalizedName, :brand, :max, :quantity, :type, 0)")
+                        .bind("id", id)
+                        .bind("name", beer.getName())
+                        .bind("normalizedName", Beer.normalizeName(beer.getName()))
+                        .bind("brand", beer.getBrand())
+                        .bind("max", beer.getMax())
+                        .bind("quantity", beer.getQuantity())
+                        .bind("type", beer.getType().name())
+                        .fetch()
+                        .rowsUpdated()
+                        .then(findById(id)));
+    }
+
+    public Mono<Integer> deleteById(Long id) {
+        return databaseClient.execute("delete from beer where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return 1 if the stock was incremented, 0 if the beer does not exist or the increment would exceed its max
+     */
+    public Mono<Integer> incrementQuantity(Long id, int quantity) {
+        return databaseClient.execute("update beer set quantity = quantity + :quantity, version = version + 1 "
+                + "where id = :id and quantity + :quantity <= max")
+                .bind("id", id)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return 1 if the stock was decremented, 0 if the beer does not exist or has less than the given quantity
+     */
+    public Mono<Integer> decrementQuantity(Long id, int quantity) {
+        return databaseClient.execute("update beer set quantity = quantity - :quantity, version = version + 1 "
+                + "where id = :id and quantity >= :quantity")
+                .bind("id", id)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Beer toBeer(Row row, RowMetadata metadata) {
+        Beer beer = new Beer();
+        beer.setId(row.get("id", Long.class));
+        beer.setName(row.get("name", String.class));
+        beer.setNormalizedName(row.get("normalized_name", String.class));
+        beer.setBrand(row.get("brand", String.class));
+        beer.setMax(row.get("max", Integer.class));
+        beer.setQuantity(row.get("quantity", Integer.class));
+        beer.setType(BeerType.valueOf(row.get("type", String.class)));
+        beer.setVersion(row.get("version", Long.class));
+        return beer;
+    }
+}
@@ -0,0 +1,126 @@
+package one.digitalinnovation.beerstock.reactive.service;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.reactive.repository.ReactiveBeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link BeerService} for the operations of the core API, with the same rules: names are
+ * unique once normalized, stock changes are single conditional updates, and pages are bounded to
+ * {@link BeerService#MAX_PAGE_SIZE}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerService {
+
+    private final ReactiveBeerRepository beerRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public Mono<BeerDTO> createBeer(BeerDTO beerDTO) {
+        return beerRepository.findByNormalizedName(Beer.normalizeName(beerDTO.getName()))
+                .flatMap(registeredBeer -> Mono.<Beer>error(new BeerAlreadyRegisteredException(beerDTO.getName())))
+                .switchIfEmpty(Mono.defer(() -> beerRepository.insert(beerMapper.toModel(beerDTO))))
+                // the unique constraint caught a concurrent registration of the same name
+                .onErrorMap(DataIntegrityViolationException.class, e -> new BeerAlreadyRegisteredException(beerDTO.getName()))
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<BeerDTO> findByName(String name) {
+        return beerRepository.findByNormalizedName(Beer.normalizeName(name))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new BeerNotFoundException(name))))
+                .map(beerMapper::toDTO);
+    }
+
+    public Flux<BeerDTO> listAll() {
+        return beerRepository.findAll()
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<BeerPageDTO> listPage(int page, int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = boundedPageSize(size);
+        return toPage(beerRepository.findPage((long) pageNumber * pageSize, pageSize + 1), pageNumber, pageSize);
+    }
+
+    public Mono<BeerPageDTO> listAfter(Long afterId, int size) {
+        int pageSize = boundedPageSize(size);
+        return toPage(beerRepository.findByIdGreaterThan(afterId, pageSize + 1), null, pageSize);
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return verifyIfExists(id)
+                .flatMap(beer -> beerRepository.deleteById(id))
+                .then();
+    }
+
+    /**
+     * The conditional update and the read of the updated row share a transaction: the update keeps the row locked
+     * until commit, so the beer emitted is the one this change produced and not one changed again meanwhile.
+     */
+    public Mono<BeerDTO> increment(Long id, int quantityToIncrement) {
+        return beerRepository.incrementQuantity(id, quantityToIncrement)
+                .flatMap(updated -> updated == 0
+                        ? verifyIfExists(id).then(Mono.<Beer>error(new BeerStockExceededException(id, quantityToIncrement)))
+                        : verifyIfExists(id))
+                .as(transactionalOperator::transactional)
+                .map(beerMapper::toDTO);
+    }
+
+    /**
+     * Reads the decremented row back in the update's transaction, like {@link #increment}.
+     */
+    public Mono<BeerDTO> decrement(Long id, int quantityToDecrement) {
+        return beerRepository.decrementQuantity(id, quantityToDecrement)
+                .flatMap(updated -> updated == 0
+                        ? verifyIfExists(id).then(Mono.<Beer>error(new BeerStockInsufficientException(id, quantityToDecrement)))
+                        : verifyIfExists(id))
+                .as(transactionalOperator::transactional)
+                .map(beerMapper::toDTO);
+    }
+
+    private Mono<Beer> verifyIfExists(Long id) {
+        return beerRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new BeerNotFoundException(id))));
+    }
+
+    private int boundedPageSize(int size) {
+        return Math.min(Math.max(size, 1), BeerService.MAX_PAGE_SIZE);
+    }
+
+    /**
+     * The repository was asked for one beer more than the page size, which tells whether there is a next page.
+     */
+    private Mono<BeerPageDTO> toPage(Flux<Beer> beers, Integer page, int pageSize) {
+        return beers.map(beerMapper::toDTO)
+                .collectList()
+                .map(beerDTOs -> {
+                    boolean hasNext = beerDTOs.size() > pageSize;
+                    List<BeerDTO> content = hasNext ? beerDTOs.subList(0, pageSize) : beerDTOs;
+                    return BeerPageDTO.builder()
+                            .beers(content)
+                            .page(page)
+                            .size(pageSize)
+                            .nextCursor(hasNext ? content.get(content.size() - 1).getId() : null)
+                            .build();
+                });
+    }
+}
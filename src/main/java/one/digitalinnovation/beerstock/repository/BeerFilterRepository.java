@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface BeerFilterRepository {
+
+    /**
+     * Beers matching every criterion of the filter with an id greater than {@code afterId} (if given), ordered by id.
+     * Like the other listings it returns a slice, so no count query runs over the matching rows.
+     */
+    Slice<Beer> findFiltered(BeerFilterDTO filter, Long afterId, Pageable pageable);
+}
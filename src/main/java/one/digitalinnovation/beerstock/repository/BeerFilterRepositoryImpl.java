@@ -0,0 +1,75 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/**
+ * Builds the filter as a criteria query so only the given criteria end up in the where clause, letting the database
+ * pick the (type, id) or (brand, id) index and walk it in id order. The fill ratio is compared as
+ * {@code quantity >= ratio * max} rather than dividing, which also keeps empty beers with max 0 out of trouble.
+ */
+public class BeerFilterRepositoryImpl implements BeerFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Beer> findFiltered(BeerFilterDTO filter, Long afterId, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Beer> query = criteriaBuilder.createQuery(Beer.class);
+        Root<Beer> beer = query.from(Beer.class);
+        Expression<Number> quantity = beer.get("quantity");
+        Expression<Number> max = beer.get("max");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(criteriaBuilder.greaterThan(beer.get("id"), afterId));
+        }
+        if (filter.getType() != null) {
+            predicates.add(criteriaBuilder.equal(beer.get("type"), filter.getType()));
+        }
+        if (filter.getBrand() != null) {
+            predicates.add(criteriaBuilder.equal(beer.get("brand"), filter.getBrand()));
+        }
+        if (filter.getMinQuantity() != null) {
+            predicates.add(criteriaBuilder.ge(quantity, filter.getMinQuantity()));
+        }
+        if (filter.getMaxQuantity() != null) {
+            predicates.add(criteriaBuilder.le(quantity, filter.getMaxQuantity()));
+        }
+        if (filter.getMinFillRatio() != null) {
+            predicates.add(criteriaBuilder.ge(quantity, criteriaBuilder.prod(max, filter.getMinFillRatio())));
+        }
+        if (filter.getMaxFillRatio() != null) {
+            predicates.add(criteriaBuilder.le(quantity, criteriaBuilder.prod(max, filter.getMaxFillRatio())));
+        }
+        query.select(beer)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(criteriaBuilder.asc(beer.get("id")));
+
+        // one extra row tells whether there is a next slice
+        List<Beer> beers = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .setHint(HINT_READONLY, true)
+                .getResultList();
+        boolean hasNext = beers.size() > pageable.getPageSize();
+        List<Beer> content = hasNext ? beers.subList(0, pageable.getPageSize()) : beers;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
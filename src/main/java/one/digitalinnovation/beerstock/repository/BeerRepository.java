@@ -1,11 +1,108 @@
 package one.digitalinnovation.beerstock.repository;
 
+import one.digitalinnovation.beerstock.config.HibernateCacheConfig;
 import one.digitalinnovation.beerstock.entity.Beer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    Optional<Beer> findByName(String name);
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerFilterRepository {
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.BEER_BY_NAME_QUERY_REGION)
+    })
+    Optional<Beer> findByNormalizedName(String normalizedName);
+
+    @Query("select b.normalizedName from Beer b where b.normalizedName in :normalizedNames")
+    List<String> findRegisteredNormalizedNames(@Param("normalizedNames") Collection<String> normalizedNames);
+
+    /**
+     * Same query in a transaction of its own, so it still works after a failed flush has broken the caller's
+     * persistence context, and sees names committed since the caller's transaction began.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("select b.normalizedName from Beer b where b.normalizedName in :normalizedNames")
+    List<String> findCommittedNormalizedNames(@Param("normalizedNames") Collection<String> normalizedNames);
+
+    /**
+     * Loads and write-locks the given beers in id order, so concurrent callers acquire the row locks in the same order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id in :ids order by b.id")
+    List<Beer> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    Slice<Beer> findAllBy(Pageable pageable);
+
+    Slice<Beer> findByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Streams every beer ordered by id, fetching rows from the driver in chunks. Must be consumed inside a
+     * transaction and closed afterwards. The rows bypass the second-level cache, which a full scan would otherwise
+     * flood, evicting the beers actually being read.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select b from Beer b order by b.id")
+    Stream<Beer> streamAll();
+
+    /**
+     * Streams the normalized name of every beer. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select b.normalizedName from Beer b")
+    Stream<String> streamAllNormalizedNames();
+
+    /**
+     * Adds the given quantity to the beer stock in a single conditional statement.
+     *
+     * @return the number of updated rows: 0 when the beer does not exist or the max stock would be exceeded
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity + :quantity, b.version = b.version + 1 where b.id = :id and b.quantity + :quantity <= b.max")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Subtracts the given quantity from the beer stock in a single conditional statement.
+     *
+     * @return the number of updated rows: 0 when the beer does not exist or the stock is insufficient
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity - :quantity, b.version = b.version + 1 where b.id = :id and b.quantity >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Adds a signed delta to the beer stock without any bounds check, for deltas already validated elsewhere.
+     *
+     * @return the number of updated rows: 0 when the beer does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity + :delta, b.version = b.version + 1 where b.id = :id")
+    int applyQuantityDelta(@Param("id") Long id, @Param("delta") int delta);
 }
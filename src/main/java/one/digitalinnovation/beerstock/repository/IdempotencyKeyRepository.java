@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.IdempotencyKeyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyRecord, String> {
+
+    /**
+     * Inserts the key without a response yet. A plain insert rather than {@code save}, which would merge into an
+     * existing row: a key already claimed, here or by another instance, fails with a primary key violation.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key is already claimed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_key (idempotency_key, fingerprint, response, expires_at) "
+            + "values (:key, :fingerprint, null, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKeyRecord r set r.response = :response where r.key = :key")
+    int complete(@Param("key") String key, @Param("response") String response);
+
+    /**
+     * @return 1 if the key had expired and was deleted, so it can be claimed again
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyRecord r where r.key = :key and r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") Instant now);
+
+    /**
+     * @return the number of expired keys deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
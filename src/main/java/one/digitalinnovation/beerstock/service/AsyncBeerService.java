@@ -0,0 +1,259 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import one.digitalinnovation.beerstock.config.BulkheadProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.exception.BulkheadFullException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link BeerService} calls on two bulkheads, bounded pools with bounded queues: one for catalog reads and one
+ * for writes, so a burst of listings can only fill the read bulkhead while stock changes keep their own threads.
+ * Reservations, their commits and their releases are stock changes too and share the write bulkhead.
+ *
+ * <p>A call that finds its bulkhead's queue full is not queued at all: the returned future fails right away with
+ * {@link BulkheadFullException} (503), and {@code beerstock.bulkhead.rejected} is incremented. Business failures of
+ * {@link BeerService} and {@link BeerReservationService} complete the future exceptionally as they are, unwrapped.</p>
+ *
+ * <p>With {@code beerstock.threads.virtual=true} a fixed pool would cap blocking database work at its thread count
+ * again. Each call then runs on its own virtual thread instead, and a bulkhead is only a count of the calls it lets
+ * run at once, {@code max-concurrent-calls}; database work is bounded by the connection pool.</p>
+ */
+@Service
+public class AsyncBeerService {
+
+    public static final String READ_BULKHEAD = "read";
+    public static final String WRITE_BULKHEAD = "write";
+
+    /**
+     * Name of the executor bean defined by the Java 21 build's VirtualThreadConfig.
+     */
+    public static final String VIRTUAL_THREAD_EXECUTOR = "virtualThreadExecutor";
+
+    private final BeerService beerService;
+    private final BeerReservationService beerReservationService;
+    private final Bulkhead reads;
+    private final Bulkhead writes;
+
+    public AsyncBeerService(BeerService beerService,
+                            BeerReservationService beerReservationService,
+                            BulkheadProperties properties,
+                            MeterRegistry meterRegistry) {
+        this(beerService, beerReservationService, properties, meterRegistry, Optional.empty());
+    }
+
+    /**
+     * @param virtualThreadExecutor the thread per task executor of the Java 21 build, present when
+     *                              {@code beerstock.threads.virtual=true}
+     */
+    @Autowired
+    public AsyncBeerService(BeerService beerService,
+                            BeerReservationService beerReservationService,
+                            BulkheadProperties properties,
+                            MeterRegistry meterRegistry,
+                            @Qualifier(VIRTUAL_THREAD_EXECUTOR) Optional<ExecutorService> virtualThreadExecutor) {
+        this.beerService = beerService;
+        this.beerReservationService = beerReservationService;
+        this.reads = virtualThreadExecutor
+                .<Bulkhead>map(executor -> new ConcurrencyLimit(READ_BULKHEAD, properties.getRead(), executor, meterRegistry))
+                .orElseGet(() -> new ThreadPool(READ_BULKHEAD, properties.getRead(), meterRegistry));
+        this.writes = virtualThreadExecutor
+                .<Bulkhead>map(executor -> new ConcurrencyLimit(WRITE_BULKHEAD, properties.getWrite(), executor, meterRegistry))
+                .orElseGet(() -> new ThreadPool(WRITE_BULKHEAD, properties.getWrite(), meterRegistry));
+    }
+
+    public CompletableFuture<BeerDTO> createBeer(BeerDTO beerDTO) {
+        return writes.submit(() -> beerService.createBeer(beerDTO));
+    }
+
+    public CompletableFuture<BeerDTO> findByName(String name) {
+        return reads.submit(() -> beerService.findByName(name));
+    }
+
+    public CompletableFuture<List<BeerDTO>> listAll() {
+        return reads.submit(beerService::listAll);
+    }
+
+    public CompletableFuture<BeerPageDTO> listPage(int page, int size) {
+        return reads.submit(() -> beerService.listPage(page, size));
+    }
+
+    public CompletableFuture<BeerPageDTO> listAfter(Long afterId, int size) {
+        return reads.submit(() -> beerService.listAfter(afterId, size));
+    }
+
+    public CompletableFuture<BeerPageDTO> listFiltered(BeerFilterDTO filter, Long afterId, int size) {
+        return reads.submit(() -> beerService.listFiltered(filter, afterId, size));
+    }
+
+    public CompletableFuture<Void> deleteById(Long id) {
+        return writes.submit(() -> {
+            beerService.deleteById(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<BeerDTO> increment(Long id, int quantityToIncrement) {
+        return writes.submit(() -> beerService.increment(id, quantityToIncrement));
+    }
+
+    public CompletableFuture<BeerDTO> decrement(Long id, int quantityToDecrement) {
+        return writes.submit(() -> beerService.decrement(id, quantityToDecrement));
+    }
+
+    public CompletableFuture<ReservationDTO> reserve(Long beerId, ReservationRequestDTO request) {
+        return writes.submit(() -> beerReservationService.hold(beerId, request));
+    }
+
+    public CompletableFuture<BeerDTO> commitReservation(String reservationId) {
+        return writes.submit(() -> beerReservationService.commit(reservationId));
+    }
+
+    public CompletableFuture<Void> releaseReservation(String reservationId) {
+        return writes.submit(() -> {
+            beerReservationService.release(reservationId);
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        reads.close();
+        writes.close();
+    }
+
+    private abstract static class Bulkhead {
+
+        final String name;
+        final Counter rejected;
+
+        Bulkhead(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.rejected = meterRegistry.counter("beerstock.bulkhead.rejected", "bulkhead", name);
+        }
+
+        abstract <T> CompletableFuture<T> submit(Callable<T> call);
+
+        abstract void close();
+
+        <T> CompletableFuture<T> reject(int limit) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new BulkheadFullException(name, limit));
+        }
+
+        static <T> Runnable completing(CompletableFuture<T> result, Callable<T> call) {
+            return () -> {
+                try {
+                    result.complete(call.call());
+                } catch (Throwable e) {
+                    // errors too, or the request would hang until the async timeout
+                    result.completeExceptionally(e);
+                }
+            };
+        }
+    }
+
+    /**
+     * Fixed pool of platform threads with a bounded queue in front.
+     */
+    private static final class ThreadPool extends Bulkhead {
+
+        private final int queueCapacity;
+        private final ThreadPoolExecutor executor;
+
+        ThreadPool(String name, BulkheadProperties.Pool pool, MeterRegistry meterRegistry) {
+            super(name, meterRegistry);
+            this.queueCapacity = pool.getQueueCapacity();
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(pool.getThreads(), pool.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(pool.getQueueCapacity()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "beer-" + name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            new ExecutorServiceMetrics(executor, "beerstock.bulkhead", Tags.of("bulkhead", name)).bindTo(meterRegistry);
+        }
+
+        @Override
+        <T> CompletableFuture<T> submit(Callable<T> call) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                executor.execute(completing(result, call));
+            } catch (RejectedExecutionException e) {
+                return reject(queueCapacity);
+            }
+            return result;
+        }
+
+        @Override
+        void close() {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Semaphore in front of a thread per task executor: no queue, calls beyond the limit are rejected.
+     */
+    private static final class ConcurrencyLimit extends Bulkhead {
+
+        private final int maxConcurrentCalls;
+        private final Semaphore permits;
+        private final Executor executor;
+
+        ConcurrencyLimit(String name, BulkheadProperties.Pool pool, Executor executor, MeterRegistry meterRegistry) {
+            super(name, meterRegistry);
+            this.maxConcurrentCalls = pool.getMaxConcurrentCalls();
+            this.permits = new Semaphore(maxConcurrentCalls);
+            this.executor = executor;
+            meterRegistry.gauge("beerstock.bulkhead.calls", Tags.of("bulkhead", name), permits,
+                    semaphore -> maxConcurrentCalls - semaphore.availablePermits());
+        }
+
+        @Override
+        <T> CompletableFuture<T> submit(Callable<T> call) {
+            if (!permits.tryAcquire()) {
+                return reject(maxConcurrentCalls);
+            }
+            CompletableFuture<T> result = new CompletableFuture<>();
+            result.whenComplete((value, failure) -> permits.release());
+            try {
+                executor.execute(completing(result, call));
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+
+        /**
+         * The executor belongs to VirtualThreadConfig, which shuts it down.
+         */
+        @Override
+        void close() {
+        }
+    }
+}
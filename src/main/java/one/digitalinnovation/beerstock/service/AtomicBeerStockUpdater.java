@@ -0,0 +1,56 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Default stock updater: every change is a single conditional update statement, so the bounds check and the write
+ * happen atomically in the database. The row is only read back to build the response or to tell a missing beer
+ * apart from a bounds violation. The update is a JPQL bulk statement rather than a native one returning the row, so
+ * Hibernate invalidates the cached beers it changes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.stock", name = "mode", havingValue = "atomic", matchIfMissing = true)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class AtomicBeerStockUpdater implements BeerStockUpdater {
+
+    private final BeerRepository beerRepository;
+
+    @Override
+    @Transactional
+    public Beer increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        if (beerRepository.incrementQuantity(id, quantityToIncrement) == 0) {
+            verifyIfExists(id);
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        }
+        return verifyIfExists(id);
+    }
+
+    @Override
+    @Transactional
+    public Beer decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException {
+        if (beerRepository.decrementQuantity(id, quantityToDecrement) == 0) {
+            verifyIfExists(id);
+            throw new BeerStockInsufficientException(id, quantityToDecrement);
+        }
+        return verifyIfExists(id);
+    }
+
+    @Override
+    public int currentQuantity(Long id) throws BeerNotFoundException {
+        return verifyIfExists(id).getQuantity();
+    }
+
+    private Beer verifyIfExists(Long id) throws BeerNotFoundException {
+        return beerRepository.findById(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+    }
+}
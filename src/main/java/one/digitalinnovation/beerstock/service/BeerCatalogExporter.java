@@ -0,0 +1,79 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import one.digitalinnovation.beerstock.config.MetricsConfig;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole beer catalog as newline-delimited JSON, one {@link BeerDTO} per line, straight from a database
+ * cursor. Each entity is detached once written, so memory use does not grow with the number of rows.
+ */
+@Service
+public class BeerCatalogExporter {
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+    private static final SerializedString LINE_SEPARATOR = new SerializedString("\n");
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter beerWriter;
+    private final ObjectMapper objectMapper;
+    private final BeerMapper beerMapper;
+
+    @Autowired
+    public BeerCatalogExporter(BeerRepository beerRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                               BeerMapper beerMapper) {
+        this.beerRepository = beerRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.beerMapper = beerMapper;
+        this.beerWriter = objectMapper.writerFor(BeerDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @return the number of exported beers
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public long exportAll(OutputStream outputStream) throws IOException {
+        long exported = 0;
+        try (Stream<Beer> beers = beerRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(LINE_SEPARATOR);
+            Iterator<Beer> iterator = beers.iterator();
+            while (iterator.hasNext()) {
+                Beer beer = iterator.next();
+                beerWriter.writeValue(generator, beerMapper.toDTO(beer));
+                entityManager.detach(beer);
+                if (++exported % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            if (exported > 0) {
+                generator.writeRaw(LINE_SEPARATOR.getValue());
+            }
+        }
+        return exported;
+    }
+}
@@ -0,0 +1,187 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.config.BeerNameFilterProperties;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Counting Bloom filter of the registered normalized beer names, used to skip the duplicate-name lookup for names that are
+ * definitely new. Each slot is a 4-bit counter packed sixteen to a {@code long}, so names can be removed again; a
+ * counter that reaches 15 saturates and is never decremented, which can only cost extra lookups, never a missed one.
+ *
+ * <p>The filter is rebuilt from the beer table on startup and kept up to date by {@link BeerService}. It only speeds
+ * up the common case: the unique constraint on {@code Beer.normalizedName} still decides whether an insert is a duplicate.</p>
+ */
+@Slf4j
+@Component
+public class BeerNameFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_SLOT = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long counterCount;
+    private final int hashCount;
+    private final AtomicLongArray slots;
+
+    private final Counter absentChecks;
+    private final Counter falsePositives;
+    private final LongAdder absentCount = new LongAdder();
+    private final LongAdder falsePositiveCount = new LongAdder();
+
+    private volatile boolean loaded;
+
+    @Autowired
+    public BeerNameFilter(BeerRepository beerRepository,
+                          PlatformTransactionManager transactionManager,
+                          BeerNameFilterProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = properties.isEnabled();
+
+        long expectedNames = Math.max(properties.getExpectedNames(), 1);
+        double probability = properties.getFalsePositiveProbability();
+        long optimalCounters = (long) Math.ceil(-expectedNames * Math.log(probability) / (Math.log(2) * Math.log(2)));
+        int slotCount = (int) Math.max((optimalCounters + COUNTERS_PER_SLOT - 1) / COUNTERS_PER_SLOT, 1);
+        this.counterCount = (long) slotCount * COUNTERS_PER_SLOT;
+        this.hashCount = Math.max((int) Math.round((double) counterCount / expectedNames * Math.log(2)), 1);
+        this.slots = new AtomicLongArray(enabled ? slotCount : 0);
+
+        this.absentChecks = meterRegistry.counter("beerstock.name.filter.checks", "result", "absent");
+        this.falsePositives = meterRegistry.counter("beerstock.name.filter.checks", "result", "false-positive");
+        Gauge.builder("beerstock.name.filter.false.positive.rate", this, BeerNameFilter::falsePositiveRate)
+                .description("Share of names not registered yet that the filter still reported as possibly registered")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.execute(status -> {
+            try (Stream<String> names = beerRepository.streamAllNormalizedNames()) {
+                names.forEach(this::put);
+            }
+            return null;
+        });
+        loaded = true;
+        log.info("Beer name filter loaded with {} counters and {} hash functions", counterCount, hashCount);
+    }
+
+    /**
+     * @return false only when the name is certainly not registered
+     */
+    public boolean mightContain(String name) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+        long[] hashes = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            if (counterAt(index(hashes, i)) == 0) {
+                absentChecks.increment();
+                absentCount.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records that a name reported by {@link #mightContain(String)} turned out not to be registered.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+        falsePositiveCount.increment();
+    }
+
+    public void put(String name) {
+        if (!enabled) {
+            return;
+        }
+        long[] hashes = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            updateCounter(index(hashes, i), 1);
+        }
+    }
+
+    /**
+     * Removes a name previously added with {@link #put(String)}.
+     */
+    public void remove(String name) {
+        if (!enabled) {
+            return;
+        }
+        long[] hashes = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            updateCounter(index(hashes, i), -1);
+        }
+    }
+
+    public double falsePositiveRate() {
+        long falsePositive = falsePositiveCount.sum();
+        long negatives = falsePositive + absentCount.sum();
+        return negatives == 0 ? 0.0 : (double) falsePositive / negatives;
+    }
+
+    private int counterAt(long index) {
+        int shift = (int) (index % COUNTERS_PER_SLOT) * COUNTER_BITS;
+        return (int) ((slots.get((int) (index / COUNTERS_PER_SLOT)) >>> shift) & COUNTER_MASK);
+    }
+
+    private void updateCounter(long index, int delta) {
+        int slot = (int) (index / COUNTERS_PER_SLOT);
+        int shift = (int) (index % COUNTERS_PER_SLOT) * COUNTER_BITS;
+        long current;
+        long updated;
+        do {
+            current = slots.get(slot);
+            long counter = (current >>> shift) & COUNTER_MASK;
+            if (counter == COUNTER_MASK || (delta < 0 && counter == 0)) {
+                // saturated counters stay put, and a counter never goes below zero
+                return;
+            }
+            updated = current + ((long) delta << shift);
+        } while (!slots.compareAndSet(slot, current, updated));
+    }
+
+    private long index(long[] hashes, int i) {
+        return ((hashes[0] + i * hashes[1]) & Long.MAX_VALUE) % counterCount;
+    }
+
+    /**
+     * Two 64-bit hashes of the name combined per Kirsch-Mitzenmacher to derive every counter index: FNV-1a, and the
+     * SplitMix64 finalization of it. The second is derived from the first rather than independent, so names whose
+     * FNV-1a hashes collide share every counter; the finalizer only decorrelates the bits of the two.
+     */
+    private static long[] hash(String name) {
+        long fnv = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            fnv ^= b & 0xff;
+            fnv *= 0x100000001b3L;
+        }
+        long mixed = fnv + 0x9e3779b97f4a7c15L;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xbf58476d1ce4e5b9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94d049bb133111ebL;
+        mixed = mixed ^ (mixed >>> 31);
+        return new long[]{fnv, mixed | 1};
+    }
+}
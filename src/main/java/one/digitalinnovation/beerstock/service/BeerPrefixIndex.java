@@ -0,0 +1,108 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index of beer names and brands for autocompletion. Both are normalized like
+ * {@link Beer#normalizeName(String)} and kept in a sorted,
+ * lock-free {@link ConcurrentSkipListMap} keyed by {@code "<term>\0<id>"}, so a prefix query is a range scan that stops
+ * after {@code limit} beers and never waits on a writer. The name and brand entries of a beer share one suggestion.
+ *
+ * <p>Like {@link BeerNameFilter}, the index is rebuilt from the beer table on startup and kept up to date by
+ * {@link BeerService}.</p>
+ */
+@Slf4j
+@Component
+public class BeerPrefixIndex {
+
+    private static final char ID_SEPARATOR = '\0';
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentSkipListMap<String, BeerSuggestionDTO> entries = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public BeerPrefixIndex(BeerRepository beerRepository, PlatformTransactionManager transactionManager) {
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void load() {
+        transactionTemplate.execute(status -> {
+            try (Stream<Beer> beers = beerRepository.streamAll()) {
+                beers.forEach(this::put);
+            }
+            return null;
+        });
+        log.info("Beer prefix index loaded with {} entries", entries.size());
+    }
+
+    public void put(Beer beer) {
+        BeerSuggestionDTO suggestion = BeerSuggestionDTO.builder()
+                .id(beer.getId())
+                .name(beer.getName())
+                .brand(beer.getBrand())
+                .build();
+        entries.put(key(beer.getName(), beer.getId()), suggestion);
+        entries.put(key(beer.getBrand(), beer.getId()), suggestion);
+    }
+
+    public void remove(Beer beer) {
+        entries.remove(key(beer.getName(), beer.getId()));
+        entries.remove(key(beer.getBrand(), beer.getId()));
+    }
+
+    /**
+     * @return up to {@code limit} beers whose name or brand starts with the prefix, ignoring case, ordered by the
+     * matching term
+     */
+    public List<BeerSuggestionDTO> complete(String prefix, int limit) {
+        String term = normalize(prefix);
+        if (term.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        ConcurrentNavigableMap<String, BeerSuggestionDTO> matches =
+                entries.subMap(term, true, term + Character.MAX_VALUE, true);
+        // a beer whose name and brand both match shows up once
+        Map<Long, BeerSuggestionDTO> suggestions = new LinkedHashMap<>();
+        for (BeerSuggestionDTO suggestion : matches.values()) {
+            suggestions.putIfAbsent(suggestion.getId(), suggestion);
+            if (suggestions.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String key(String term, Long id) {
+        return normalize(term) + ID_SEPARATOR + id;
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "" : Beer.normalizeName(term);
+    }
+}
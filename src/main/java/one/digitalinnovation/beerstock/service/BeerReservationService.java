@@ -0,0 +1,190 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.config.MetricsConfig;
+import one.digitalinnovation.beerstock.config.ReservationProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds units of a beer for a checkout until it is committed, released or expires, so abandoned checkouts cost no
+ * stock writes at all: a hold is only recorded in {@link StockHolds}, and committing it is the one decrement.
+ *
+ * <p>Held units are out of reach of other reservations and of {@link BeerService#decrement}; batch stock adjustments
+ * are not checked against them. Expired holds are released by a {@link HashedTimerWheel} ticking on one thread, at
+ * most one tick late. Holds are checked against {@link BeerStockUpdater#currentQuantity}, so in write-behind mode
+ * against the counters rather than the last flushed stock.</p>
+ */
+@Service
+public class BeerReservationService {
+
+    private final BeerService beerService;
+    private final BeerStockUpdater beerStockUpdater;
+    private final StockHolds stockHolds;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final HashedTimerWheel<Reservation> expirer;
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Counter held;
+    private final Counter committed;
+    private final Counter released;
+    private final Counter expired;
+
+    @Autowired
+    public BeerReservationService(BeerService beerService,
+                                  BeerStockUpdater beerStockUpdater,
+                                  StockHolds stockHolds,
+                                  ReservationProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.beerService = beerService;
+        this.beerStockUpdater = beerStockUpdater;
+        this.stockHolds = stockHolds;
+        this.defaultTtl = properties.getDefaultTtl();
+        this.maxTtl = properties.getMaxTtl();
+        this.expirer = new HashedTimerWheel<>(properties.getTick(), properties.getWheelSize(), this::expire,
+                "reservation-expirer");
+        this.held = meterRegistry.counter("beerstock.reservations", "outcome", "held");
+        this.committed = meterRegistry.counter("beerstock.reservations", "outcome", "committed");
+        this.released = meterRegistry.counter("beerstock.reservations", "outcome", "released");
+        this.expired = meterRegistry.counter("beerstock.reservations", "outcome", "expired");
+        Gauge.builder("beerstock.reservations.active", reservations, ConcurrentHashMap::size)
+                .description("Reservations holding stock")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        expirer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        expirer.close();
+    }
+
+    /**
+     * The hold is added before the stock is read, as {@link BeerService#decrement} reads the holds after changing the
+     * stock, so of the two racing for the same units at least one backs out.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public ReservationDTO hold(Long beerId, ReservationRequestDTO request) throws BeerNotFoundException, BeerStockInsufficientException {
+        int quantity = request.getQuantity();
+        int heldUnits = stockHolds.hold(beerId, quantity);
+        int stock;
+        try {
+            stock = beerStockUpdater.currentQuantity(beerId);
+        } catch (BeerNotFoundException | RuntimeException e) {
+            stockHolds.release(beerId, quantity);
+            throw e;
+        }
+        int available = stock - heldUnits;
+        if (available < 0) {
+            stockHolds.release(beerId, quantity);
+            throw new BeerStockInsufficientException(beerId, quantity, Math.max(0, available + quantity));
+        }
+
+        Duration ttl = ttlOf(request);
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), beerId, quantity, Instant.now().plus(ttl));
+        reservations.put(reservation.id, reservation);
+        reservation.timeout = expirer.schedule(reservation, ttl);
+        held.increment();
+        return ReservationDTO.builder()
+                .id(reservation.id)
+                .beerId(beerId)
+                .quantity(quantity)
+                .expiresAt(reservation.expiresAt)
+                .available(available)
+                .build();
+    }
+
+    /**
+     * Decrements the held units from the stock and ends the hold, whether the decrement succeeds or not.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public BeerDTO commit(String reservationId) throws ReservationNotFoundException, BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
+        Reservation reservation = claim(reservationId);
+        try {
+            BeerDTO beerDTO = beerService.decrementHeld(reservation.beerId, reservation.quantity);
+            committed.increment();
+            return beerDTO;
+        } finally {
+            stockHolds.release(reservation.beerId, reservation.quantity);
+        }
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public void release(String reservationId) throws ReservationNotFoundException {
+        Reservation reservation = claim(reservationId);
+        stockHolds.release(reservation.beerId, reservation.quantity);
+        released.increment();
+    }
+
+    /**
+     * Removing the reservation is what settles a commit, release and expiry racing for it: only one of them gets it.
+     */
+    private Reservation claim(String reservationId) throws ReservationNotFoundException {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        HashedTimerWheel.Timeout<Reservation> timeout = reservation.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        return reservation;
+    }
+
+    private void expire(Reservation reservation) {
+        if (reservations.remove(reservation.id, reservation)) {
+            stockHolds.release(reservation.beerId, reservation.quantity);
+            expired.increment();
+        }
+    }
+
+    private Duration ttlOf(ReservationRequestDTO request) {
+        if (request.getTtlSeconds() == null) {
+            return defaultTtl;
+        }
+        Duration ttl = Duration.ofSeconds(request.getTtlSeconds());
+        return ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+
+    private static final class Reservation {
+
+        private final String id;
+        private final Long beerId;
+        private final int quantity;
+        private final Instant expiresAt;
+
+        private volatile HashedTimerWheel.Timeout<Reservation> timeout;
+
+        Reservation(String id, Long beerId, int quantity, Instant expiresAt) {
+            this.id = id;
+            this.beerId = beerId;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public String toString() {
+            return "reservation " + id;
+        }
+    }
+}
@@ -1,41 +1,180 @@
 package one.digitalinnovation.beerstock.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.config.CacheConfig;
+import one.digitalinnovation.beerstock.config.MetricsConfig;
+import one.digitalinnovation.beerstock.dto.BeerBatchResultDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.dto.StockEventDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerBatchItemStatus;
+import one.digitalinnovation.beerstock.enums.StockEventType;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerBatchTooLargeException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private static final Sort SORT_BY_ID = Sort.by("id");
+
     private final BeerRepository beerRepository;
-    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final BeerStockUpdater beerStockUpdater;
+    private final BeerStockLocks beerStockLocks;
+    private final StockHolds stockHolds;
+    private final BeerNameFilter beerNameFilter;
+    private final BeerPrefixIndex beerPrefixIndex;
+    private final Validator validator;
+    private final BeerMapper beerMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<String, Optional<Beer>> nameLookups = new SingleFlight<>();
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @CachePut(cacheNames = CacheConfig.BEERS_BY_NAME, key = CacheConfig.NORMALIZED_RESULT_NAME_KEY)
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
-        Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        Beer savedBeer;
+        try {
+            savedBeer = beerRepository.save(beer);
+        } catch (DataIntegrityViolationException e) {
+            // the unique constraint on the name caught a duplicate the lookup skipped or raced with
+            throw new BeerAlreadyRegisteredException(beerDTO.getName());
+        }
+        beerNameFilter.put(Beer.normalizeName(savedBeer.getName()));
+        beerPrefixIndex.put(savedBeer);
+        BeerDTO createdBeerDTO = beerMapper.toDTO(savedBeer);
+        eventPublisher.publishEvent(StockEventDTO.of(StockEventType.CREATED, createdBeerDTO));
+        return createdBeerDTO;
+    }
+
+    /**
+     * Registers a whole catalog in one transaction: every item is validated, duplicates are detected with a single
+     * {@code IN} query and within the batch itself, and the new beers are inserted in JDBC batches. Invalid and
+     * duplicated items are reported in their result instead of failing the batch. The new beers only reach the name
+     * filter and the prefix index once the batch commits, so a rolled back batch leaves nothing behind.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(rollbackFor = BeerAlreadyRegisteredException.class)
+    public List<BeerBatchResultDTO> createBeers(List<BeerDTO> beerDTOs) throws BeerBatchTooLargeException, BeerAlreadyRegisteredException {
+        if (beerDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BeerBatchTooLargeException(beerDTOs.size(), MAX_BATCH_SIZE);
+        }
+        BeerBatchResultDTO[] results = new BeerBatchResultDTO[beerDTOs.size()];
+        for (int i = 0; i < beerDTOs.size(); i++) {
+            List<String> errors = validate(beerDTOs.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = batchResult(i, BeerBatchItemStatus.INVALID, beerDTOs.get(i), errors);
+            }
+        }
+
+        Set<String> candidateNames = new HashSet<>();
+        for (int i = 0; i < beerDTOs.size(); i++) {
+            if (results[i] == null) {
+                candidateNames.add(Beer.normalizeName(beerDTOs.get(i).getName()));
+            }
+        }
+        Set<String> takenNames = candidateNames.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(beerRepository.findRegisteredNormalizedNames(candidateNames));
+
+        List<Integer> createdIndexes = new ArrayList<>();
+        List<Beer> beersToSave = new ArrayList<>();
+        for (int i = 0; i < beerDTOs.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BeerDTO beerDTO = beerDTOs.get(i);
+            if (!takenNames.add(Beer.normalizeName(beerDTO.getName()))) {
+                results[i] = batchResult(i, BeerBatchItemStatus.DUPLICATE, beerDTO, Collections.emptyList());
+                continue;
+            }
+            Beer beer = beerMapper.toModel(beerDTO);
+            beer.setId(null);
+            createdIndexes.add(i);
+            beersToSave.add(beer);
+        }
+
+        List<Beer> savedBeers;
+        try {
+            savedBeers = beerRepository.saveAll(beersToSave);
+            beerRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request registered one of the names after the IN query
+            throw new BeerAlreadyRegisteredException(concurrentlyRegisteredNames(beersToSave));
+        }
+        afterCommit(() -> savedBeers.forEach(savedBeer -> {
+            beerNameFilter.put(Beer.normalizeName(savedBeer.getName()));
+            beerPrefixIndex.put(savedBeer);
+        }));
+        for (int i = 0; i < savedBeers.size(); i++) {
+            Beer savedBeer = savedBeers.get(i);
+            int index = createdIndexes.get(i);
+            BeerDTO createdBeerDTO = beerMapper.toDTO(savedBeer);
+            // delivered once the batch commits
+            eventPublisher.publishEvent(StockEventDTO.of(StockEventType.CREATED, createdBeerDTO));
+            results[index] = batchResult(index, BeerBatchItemStatus.CREATED, createdBeerDTO, Collections.emptyList());
+        }
+        return Arrays.asList(results);
     }
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Cacheable(cacheNames = CacheConfig.BEERS_BY_NAME, key = CacheConfig.NORMALIZED_NAME_KEY, sync = true)
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
+        String normalizedName = Beer.normalizeName(name);
+        Beer foundBeer = nameLookups.execute(normalizedName, () -> beerRepository.findByNormalizedName(normalizedName))
                 .orElseThrow(() -> new BeerNotFoundException(name));
         return beerMapper.toDTO(foundBeer);
     }
 
+    /**
+     * Autocompletes beer names and brands from the in-memory prefix index, without touching the database.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<BeerSuggestionDTO> autocomplete(String prefix, int limit) {
+        return beerPrefixIndex.complete(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public List<BeerDTO> listAll() {
         return beerRepository.findAll()
                 .stream()
@@ -43,16 +182,121 @@ public class BeerService {
                 .collect(Collectors.toList());
     }
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public BeerPageDTO listPage(int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), boundedPageSize(size), SORT_BY_ID);
+        return toPage(beerRepository.findAllBy(pageRequest), pageRequest.getPageNumber());
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public BeerPageDTO listAfter(Long afterId, int size) {
+        PageRequest pageRequest = PageRequest.of(0, boundedPageSize(size), SORT_BY_ID);
+        return toPage(beerRepository.findByIdGreaterThan(afterId, pageRequest), null);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public BeerPageDTO listFiltered(BeerFilterDTO filter, Long afterId, int size) {
+        PageRequest pageRequest = PageRequest.of(0, boundedPageSize(size), SORT_BY_ID);
+        return toPage(beerRepository.findFiltered(filter, afterId, pageRequest), null);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @CacheEvict(cacheNames = CacheConfig.BEERS_BY_NAME, allEntries = true)
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
+        Beer beerToDelete = verifyIfExists(id);
         beerRepository.deleteById(id);
+        beerStockUpdater.forget(id);
+        stockHolds.clear(id);
+        beerNameFilter.remove(Beer.normalizeName(beerToDelete.getName()));
+        beerPrefixIndex.remove(beerToDelete);
+        eventPublisher.publishEvent(StockEventDTO.builder()
+                .type(StockEventType.DELETED)
+                .id(id)
+                .name(beerToDelete.getName())
+                .build());
+    }
+
+    private List<String> validate(BeerDTO beerDTO) {
+        if (beerDTO == null) {
+            return Collections.singletonList("beer must not be null");
+        }
+        return validator.validate(beerDTO)
+                .stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private BeerBatchResultDTO batchResult(int index, BeerBatchItemStatus status, BeerDTO beerDTO, List<String> errors) {
+        return BeerBatchResultDTO.builder()
+                .index(index)
+                .status(status)
+                .beer(beerDTO)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * Runs the action once the current transaction commits, like the stock event listeners, or right away outside a
+     * transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private int boundedPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    private BeerPageDTO toPage(Slice<Beer> slice, Integer page) {
+        List<BeerDTO> beers = slice.getContent()
+                .stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toList());
+        Long nextCursor = slice.hasNext() ? beers.get(beers.size() - 1).getId() : null;
+        return BeerPageDTO.builder()
+                .beers(beers)
+                .page(page)
+                .size(slice.getSize())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
-        Optional<Beer> optSavedBeer = beerRepository.findByName(name);
+        String normalizedName = Beer.normalizeName(name);
+        if (!beerNameFilter.mightContain(normalizedName)) {
+            return;
+        }
+        Optional<Beer> optSavedBeer = beerRepository.findByNormalizedName(normalizedName);
         if (optSavedBeer.isPresent()) {
             throw new BeerAlreadyRegisteredException(name);
         }
+        beerNameFilter.recordFalsePositive();
+    }
+
+    /**
+     * Names the beers of a failed batch insert that are registered now, or all of them if the conflicting insert was
+     * rolled back meanwhile.
+     */
+    private String concurrentlyRegisteredNames(List<Beer> beers) {
+        Set<String> registeredNames = new HashSet<>(beerRepository.findCommittedNormalizedNames(beers.stream()
+                .map(beer -> Beer.normalizeName(beer.getName()))
+                .collect(Collectors.toSet())));
+        List<Beer> conflictingBeers = beers.stream()
+                .filter(beer -> registeredNames.contains(Beer.normalizeName(beer.getName())))
+                .collect(Collectors.toList());
+        return (conflictingBeers.isEmpty() ? beers : conflictingBeers).stream()
+                .map(Beer::getName)
+                .collect(Collectors.joining(", "));
     }
 
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
@@ -60,25 +304,81 @@ public class BeerService {
                 .orElseThrow(() -> new BeerNotFoundException(id));
     }
 
-    public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrementStock = verifyIfExists(id);
-        int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
-        if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
-            beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantityToIncrement);
-            Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
-            return beerMapper.toDTO(incrementedBeerStock);
+    /**
+     * The cached beer is evicted once the change is committed rather than replaced: puts from two concurrent changes
+     * could land in the wrong order and cache the older stock. A {@link #findByName} that read the row before the
+     * change loads under the cache's lock on the name, so the eviction waits for it and removes what it loaded.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @CacheEvict(cacheNames = CacheConfig.BEERS_BY_NAME, key = CacheConfig.NORMALIZED_RESULT_NAME_KEY)
+    public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+        BeerStockLocks.StockLock lock = beerStockLocks.lockFor(id);
+        lock.lock();
+        try {
+            Beer incrementedBeerStock = beerStockUpdater.increment(id, quantityToIncrement);
+            BeerDTO incrementedBeerDTO = beerMapper.toDTO(incrementedBeerStock);
+            eventPublisher.publishEvent(StockEventDTO.of(StockEventType.INCREMENTED, incrementedBeerDTO));
+            return incrementedBeerDTO;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Decrements the stock, leaving the units held by reservations untouched: a decrement that would eat into them
+     * fails with {@link BeerStockInsufficientException}.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @CacheEvict(cacheNames = CacheConfig.BEERS_BY_NAME, key = CacheConfig.NORMALIZED_RESULT_NAME_KEY)
+    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
+        return decrementAroundHolds(id, quantityToDecrement, 0);
+    }
+
+    /**
+     * Decrements units the caller holds itself, when a reservation is committed: only the other holds are protected.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @CacheEvict(cacheNames = CacheConfig.BEERS_BY_NAME, key = CacheConfig.NORMALIZED_RESULT_NAME_KEY)
+    public BeerDTO decrementHeld(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
+        return decrementAroundHolds(id, quantityToDecrement, quantityToDecrement);
+    }
+
+    /**
+     * Holds are checked after the decrement, as reservations check the stock after adding their hold: of a decrement
+     * and a hold racing for the same units, at least one sees the other and backs out. A decrement backing out puts
+     * its units back without publishing anything.
+     */
+    private BeerDTO decrementAroundHolds(Long id, int quantityToDecrement, int ownHold) throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
+        BeerStockLocks.StockLock lock = beerStockLocks.lockFor(id);
+        lock.lock();
+        try {
+            Beer decrementedBeerStock = beerStockUpdater.decrement(id, quantityToDecrement);
+            int heldByOthers = stockHolds.heldFor(id) - ownHold;
+            if (heldByOthers > 0 && decrementedBeerStock.getQuantity() < heldByOthers
+                    && undoDecrement(id, quantityToDecrement)) {
+                throw new BeerStockInsufficientException(id, quantityToDecrement,
+                        Math.max(0, decrementedBeerStock.getQuantity() + quantityToDecrement - heldByOthers));
+            }
+            BeerDTO decrementedBeerDTO = beerMapper.toDTO(decrementedBeerStock);
+            eventPublisher.publishEvent(StockEventDTO.of(StockEventType.DECREMENTED, decrementedBeerDTO));
+            return decrementedBeerDTO;
+        } finally {
+            lock.unlock();
         }
-        throw new BeerStockExceededException(id, quantityToIncrement);
     }
 
-    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException {
-        Beer beerToDecrementStock = verifyIfExists(id);
-        int quantityAfterDecrement = beerToDecrementStock.getQuantity() - quantityToDecrement;
-        if (quantityAfterDecrement >= 0) {
-            beerToDecrementStock.setQuantity(beerToDecrementStock.getQuantity() - quantityToDecrement);
-            Beer decrementedBeerStock = beerRepository.save(beerToDecrementStock);
-            return beerMapper.toDTO(decrementedBeerStock);
+    /**
+     * The units can only fail to fit back if a restock filled the beer up to its max meanwhile: the decrement then
+     * stands, taken from that restock.
+     *
+     * @return whether the units were put back
+     */
+    private boolean undoDecrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockConflictException {
+        try {
+            beerStockUpdater.increment(id, quantityToDecrement);
+            return true;
+        } catch (BeerStockExceededException e) {
+            return false;
         }
-        throw new BeerStockInsufficientException(id, quantityToDecrement);
     }
 }
@@ -0,0 +1,209 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.annotation.Timed;
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import one.digitalinnovation.beerstock.config.CacheConfig;
+import one.digitalinnovation.beerstock.config.MetricsConfig;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.dto.StockEventDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentMode;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstock.enums.StockEventType;
+import one.digitalinnovation.beerstock.enums.StockMutationMode;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.StockAdjustmentModeNotSupportedException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a batch of stock adjustments, reporting the outcome of each one.
+ *
+ * <p>In the database-backed stock modes the affected rows are locked with {@code select ... for update} in id order,
+ * so concurrent batches queue behind each other instead of deadlocking. The adjustments are then checked in request
+ * order against the locked quantities, and the changed rows are written as batched versioned updates on commit.</p>
+ *
+ * <p>In write-behind mode the in-memory counters hold the current stock, so every adjustment goes through the
+ * {@link BeerStockUpdater} on its own and only {@link StockAdjustmentMode#BEST_EFFORT} is supported.</p>
+ */
+@Service
+public class BeerStockAdjustmentService {
+
+    private final BeerRepository beerRepository;
+    private final BeerStockUpdater beerStockUpdater;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockMutationMode stockMode;
+
+    @Autowired
+    public BeerStockAdjustmentService(BeerRepository beerRepository,
+                                      BeerStockUpdater beerStockUpdater,
+                                      PlatformTransactionManager transactionManager,
+                                      CacheManager cacheManager,
+                                      ApplicationEventPublisher eventPublisher,
+                                      BeerStockProperties beerStockProperties) {
+        this.beerRepository = beerRepository;
+        this.beerStockUpdater = beerStockUpdater;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.stockMode = beerStockProperties.getMode();
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<StockAdjustmentResultDTO> adjust(StockAdjustmentBatchDTO batch) throws StockAdjustmentModeNotSupportedException {
+        Map<Long, Beer> adjustedBeers = new HashMap<>();
+        List<StockAdjustmentResultDTO> results;
+        if (stockMode == StockMutationMode.WRITE_BEHIND) {
+            if (batch.getMode() != StockAdjustmentMode.BEST_EFFORT) {
+                throw new StockAdjustmentModeNotSupportedException(batch.getMode().name(), stockMode.name());
+            }
+            results = adjustOneByOne(batch.getAdjustments(), adjustedBeers);
+        } else {
+            results = transactionTemplate.execute(status -> adjustLocked(batch, adjustedBeers, status));
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.BEERS_BY_NAME);
+        adjustedBeers.values().forEach(beer -> {
+            if (cache != null) {
+                cache.evict(Beer.normalizeName(beer.getName()));
+            }
+            eventPublisher.publishEvent(StockEventDTO.builder()
+                    .type(StockEventType.ADJUSTED)
+                    .id(beer.getId())
+                    .name(beer.getName())
+                    .quantity(beer.getQuantity())
+                    .max(beer.getMax())
+                    .build());
+        });
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> adjustLocked(StockAdjustmentBatchDTO batch, Map<Long, Beer> adjustedBeers, TransactionStatus status) {
+        List<StockAdjustmentDTO> adjustments = batch.getAdjustments();
+        Set<Long> ids = adjustments.stream()
+                .map(StockAdjustmentDTO::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Beer> beers = beerRepository.findAllForUpdate(ids)
+                .stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        boolean anyFailed = false;
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockAdjustmentDTO adjustment = adjustments.get(i);
+            Long id = adjustment.getId();
+            int delta = adjustment.getDelta();
+            Beer beer = beers.get(id);
+            if (beer == null) {
+                results.add(failure(i, adjustment, StockAdjustmentStatus.NOT_FOUND, new BeerNotFoundException(id)));
+                anyFailed = true;
+                continue;
+            }
+            int currentQuantity = quantities.getOrDefault(id, beer.getQuantity());
+            int adjustedQuantity = currentQuantity + delta;
+            if (adjustedQuantity > beer.getMax()) {
+                results.add(failure(i, adjustment, StockAdjustmentStatus.STOCK_EXCEEDED, new BeerStockExceededException(id, delta)));
+                anyFailed = true;
+            } else if (adjustedQuantity < 0) {
+                results.add(failure(i, adjustment, StockAdjustmentStatus.STOCK_INSUFFICIENT,
+                        new BeerStockInsufficientException(id, -delta, currentQuantity)));
+                anyFailed = true;
+            } else {
+                quantities.put(id, adjustedQuantity);
+                results.add(applied(i, adjustment, adjustedQuantity));
+            }
+        }
+
+        if (anyFailed && batch.getMode() == StockAdjustmentMode.ALL_OR_NOTHING) {
+            status.setRollbackOnly();
+            results.replaceAll(result -> result.getStatus() == StockAdjustmentStatus.APPLIED
+                    ? rolledBack(result)
+                    : result);
+            return results;
+        }
+        // managed entities: the dirty rows are flushed as batched versioned updates on commit
+        quantities.forEach((id, quantity) -> {
+            Beer beer = beers.get(id);
+            beer.setQuantity(quantity);
+            adjustedBeers.put(id, beer);
+        });
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> adjustOneByOne(List<StockAdjustmentDTO> adjustments, Map<Long, Beer> adjustedBeers) {
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockAdjustmentDTO adjustment = adjustments.get(i);
+            int delta = adjustment.getDelta();
+            try {
+                Beer adjustedBeer = delta >= 0
+                        ? beerStockUpdater.increment(adjustment.getId(), delta)
+                        : beerStockUpdater.decrement(adjustment.getId(), -delta);
+                adjustedBeers.put(adjustedBeer.getId(), adjustedBeer);
+                results.add(applied(i, adjustment, adjustedBeer.getQuantity()));
+            } catch (BeerNotFoundException e) {
+                results.add(failure(i, adjustment, StockAdjustmentStatus.NOT_FOUND, e));
+            } catch (BeerStockExceededException e) {
+                results.add(failure(i, adjustment, StockAdjustmentStatus.STOCK_EXCEEDED, e));
+            } catch (BeerStockInsufficientException e) {
+                results.add(failure(i, adjustment, StockAdjustmentStatus.STOCK_INSUFFICIENT, e));
+            } catch (BeerStockConflictException e) {
+                results.add(failure(i, adjustment, StockAdjustmentStatus.CONFLICT, e));
+            }
+        }
+        return results;
+    }
+
+    private StockAdjustmentResultDTO applied(int index, StockAdjustmentDTO adjustment, int quantity) {
+        return StockAdjustmentResultDTO.builder()
+                .index(index)
+                .id(adjustment.getId())
+                .delta(adjustment.getDelta())
+                .status(StockAdjustmentStatus.APPLIED)
+                .quantity(quantity)
+                .build();
+    }
+
+    private StockAdjustmentResultDTO failure(int index, StockAdjustmentDTO adjustment, StockAdjustmentStatus status, Exception reason) {
+        return StockAdjustmentResultDTO.builder()
+                .index(index)
+                .id(adjustment.getId())
+                .delta(adjustment.getDelta())
+                .status(status)
+                .reason(reason.getMessage())
+                .build();
+    }
+
+    private StockAdjustmentResultDTO rolledBack(StockAdjustmentResultDTO result) {
+        return StockAdjustmentResultDTO.builder()
+                .index(result.getIndex())
+                .id(result.getId())
+                .delta(result.getDelta())
+                .status(StockAdjustmentStatus.ROLLED_BACK)
+                .reason(StockAdjustmentStatus.ROLLED_BACK.getDescription())
+                .build();
+    }
+}
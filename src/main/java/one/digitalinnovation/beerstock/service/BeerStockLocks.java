@@ -0,0 +1,79 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-process lock stripes serializing stock mutations per beer id. Threads contending on the same beer wait
+ * here, before any transaction is opened, instead of holding a pooled JDBC connection while blocked on a row lock.
+ *
+ * <p>Enabled with {@code beerstock.stock.striped-locks.enabled}; the stripe count is rounded up to a power of two.
+ * When disabled every id maps to a lock that does nothing. The stripes only coordinate this JVM, so the database
+ * statements stay responsible for correctness across instances.</p>
+ */
+@Component
+public class BeerStockLocks {
+
+    private static final StockLock NO_LOCK = new StockLock() {
+
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void unlock() {
+        }
+    };
+
+    private final StockLock[] stripes;
+
+    @Autowired
+    public BeerStockLocks(BeerStockProperties beerStockProperties) {
+        BeerStockProperties.StripedLocks config = beerStockProperties.getStripedLocks();
+        if (!config.isEnabled()) {
+            this.stripes = new StockLock[0];
+            return;
+        }
+        int size = config.getStripes() <= 1 ? 1 : Integer.highestOneBit(config.getStripes() - 1) << 1;
+        this.stripes = new StockLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public StockLock lockFor(Long id) {
+        if (stripes.length == 0) {
+            return NO_LOCK;
+        }
+        return stripes[stripeIndex(id)];
+    }
+
+    public boolean isEnabled() {
+        return stripes.length > 0;
+    }
+
+    private int stripeIndex(Long id) {
+        int hash = Long.hashCode(id);
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+
+    /**
+     * The part of {@link java.util.concurrent.locks.Lock} stock mutations use, so the lock of disabled stripes has no
+     * conditions or timed waits to refuse.
+     */
+    public interface StockLock {
+
+        void lock();
+
+        void unlock();
+    }
+
+    private static final class Stripe extends ReentrantLock implements StockLock {
+    }
+}
@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+
+/**
+ * Applies stock quantity changes to a beer. The implementation in use is selected by {@code beerstock.stock.mode}.
+ */
+public interface BeerStockUpdater {
+
+    Beer increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException;
+
+    Beer decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException;
+
+    /**
+     * The stock as the next change would see it, which in write-behind mode may not have been flushed yet.
+     */
+    int currentQuantity(Long id) throws BeerNotFoundException;
+
+    /**
+     * Drops any state kept for a beer that has been deleted.
+     */
+    default void forget(Long id) {
+    }
+}
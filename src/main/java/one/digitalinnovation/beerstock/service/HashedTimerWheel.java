@@ -0,0 +1,217 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel: a ring of buckets visited one per tick, each holding the timeouts due whenever the ring comes
+ * back to it. Scheduling and cancelling a timeout are O(1) however many are pending, and a single thread expires all
+ * of them, where a {@link ScheduledExecutorService} would need a task and O(log n) heap upkeep per timeout.
+ *
+ * <p>A timeout fires on the first tick after its delay, rounded up to whole ticks, has fully elapsed: the tick in
+ * progress does not count, so it is never early and at most a tick late. Callers only append to the queues of new and cancelled timeouts; the buckets
+ * are touched by the ticker thread alone, which drains those queues at the start of every tick.</p>
+ */
+@Slf4j
+public class HashedTimerWheel<T> {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    private final Bucket<T>[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final Consumer<T> onExpiry;
+    private final String threadName;
+    private final Queue<Timeout<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+
+    private volatile long tick;
+
+    private ScheduledExecutorService ticker;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(Duration tickDuration, int wheelSize, Consumer<T> onExpiry, String threadName) {
+        int size = wheelSize <= 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        this.mask = size - 1;
+        this.tickNanos = Math.max(1, tickDuration.toNanos());
+        this.onExpiry = onExpiry;
+        this.threadName = threadName;
+    }
+
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules the item to be handed to the expiry callback once the delay has elapsed, unless cancelled first.
+     */
+    public Timeout<T> schedule(T item, Duration delay) {
+        long delayTicks = Math.max(1, (delay.toNanos() + tickNanos - 1) / tickNanos);
+        Timeout<T> timeout = new Timeout<>(this, item, tick + delayTicks + 1);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel by one tick. Runs on the ticker thread, or on the test thread when the wheel is not started.
+     */
+    void tick() {
+        long now = tick + 1;
+        removeCancelled();
+        transferScheduled(now);
+        expire(buckets[(int) (now & mask)]);
+        tick = now;
+    }
+
+    private void removeCancelled() {
+        Timeout<T> timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Files the new timeouts into the bucket of their deadline tick, with the laps to wait there. Timeouts left in the
+     * queue past their deadline by a burst are filed into the current bucket and fire on this tick.
+     */
+    private void transferScheduled(long now) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout<T> timeout = scheduled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != PENDING) {
+                continue;
+            }
+            long deadline = Math.max(timeout.deadline, now);
+            timeout.remainingRounds = (deadline - now) / buckets.length;
+            buckets[(int) (deadline & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Bucket<T> bucket) {
+        Timeout<T> timeout = bucket.head;
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                bucket.remove(timeout);
+                if (STATE.compareAndSet(timeout, PENDING, EXPIRED)) {
+                    try {
+                        onExpiry.accept(timeout.item);
+                    } catch (RuntimeException e) {
+                        log.error("Expiry of {} failed", timeout.item, e);
+                    }
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private final HashedTimerWheel<T> wheel;
+        private final T item;
+        private final long deadline;
+
+        // package-private for STATE
+        volatile int state = PENDING;
+
+        // owned by the ticker thread
+        private long remainingRounds;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HashedTimerWheel<T> wheel, T item, long deadline) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return {@code false} if the timeout has already fired or been cancelled
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, so removing a cancelled one does not scan its bucket.
+     */
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.config.IdempotencyProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.IdempotencyKeyRecord;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyInFlightException;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of stock changes sent with an {@code Idempotency-Key}, so a client retrying a request that
+ * timed out gets the original {@link BeerDTO} back instead of changing the stock twice.
+ *
+ * <p>Keys are spread over lock stripes, each an insertion-ordered map with its share of {@code max-keys}. Since every
+ * key lives for the same ttl, insertion order is also expiry order: adding a key first drops the expired ones and,
+ * when the stripe is full, the oldest, from the head of its map. A key is registered before its stock change starts,
+ * so a retry racing the original request waits for the same result rather than running it again.</p>
+ *
+ * <p>Only successes are remembered: a failed change is forgotten, and retrying it runs it again. With
+ * {@code persistent} set, a key is also claimed in the {@link IdempotencyKeyRecord} table before its change runs, by
+ * inserting it without a response: an instance finding the key already there replays the stored response, or answers
+ * {@link IdempotencyKeyInFlightException} (409) while the other instance is still running the change. The response is
+ * filled in on success and the claim deleted on failure, which covers retries reaching another instance, concurrently
+ * or after a restart. Claims left behind by a crash expire with the ttl.</p>
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final Stripe[] stripes;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Counter replays;
+
+    private ScheduledExecutorService purger;
+
+    @Autowired
+    public IdempotencyKeyStore(IdempotencyProperties properties,
+                               IdempotencyKeyRepository repository,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        int size = properties.getStripes() <= 1 ? 1 : Integer.highestOneBit(properties.getStripes() - 1) << 1;
+        int stripeCapacity = Math.max(1, properties.getMaxKeys() / size);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.ttl = properties.getTtl();
+        this.persistent = properties.isPersistent();
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.replays = meterRegistry.counter("beerstock.idempotency.replays");
+        Gauge.builder("beerstock.idempotency.keys", this, IdempotencyKeyStore::size)
+                .description("Idempotency keys remembered in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!persistent) {
+            return;
+        }
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-key-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = ttl.toMillis();
+        purger.scheduleWithFixedDelay(this::purgeExpired, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the stock change unless the key was already used: then the result of its first use is returned, or
+     * {@link IdempotencyKeyReusedException} if that use was for another operation, beer or quantity.
+     *
+     * @param key         the {@code Idempotency-Key} header, or {@code null} to just run the change
+     * @param fingerprint what the request does, e.g. {@code "decrement:42:3"}
+     */
+    public CompletableFuture<BeerDTO> execute(String key, String fingerprint, Supplier<CompletableFuture<BeerDTO>> stockChange) {
+        if (key == null) {
+            return stockChange.get();
+        }
+        Stripe stripe = stripeFor(key);
+        CompletableFuture<BeerDTO> result = new CompletableFuture<>();
+        stripe.lock.lock();
+        try {
+            long now = System.nanoTime();
+            Entry entry = stripe.get(key, now);
+            if (entry != null) {
+                replays.increment();
+                return entry.fingerprint.equals(fingerprint)
+                        ? entry.result
+                        : CompletableFuture.failedFuture(new IdempotencyKeyReusedException(key));
+            }
+            stripe.put(key, new Entry(fingerprint, result, now + ttl.toNanos()), now);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (persistent) {
+            Optional<IdempotencyKeyRecord> record;
+            try {
+                record = claimPersisted(key, fingerprint);
+            } catch (RuntimeException e) {
+                forget(stripe, key, result);
+                result.completeExceptionally(e);
+                return result;
+            }
+            if (record.isPresent()) {
+                replayPersisted(stripe, key, fingerprint, record.get(), result);
+                return result;
+            }
+        }
+        stockChange.get().whenComplete((beer, failure) -> {
+            if (failure != null) {
+                if (persistent) {
+                    releasePersisted(key);
+                }
+                forget(stripe, key, result);
+                result.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause()
+                        : failure);
+                return;
+            }
+            if (persistent) {
+                completePersisted(key, beer);
+            }
+            result.complete(beer);
+        });
+        return result;
+    }
+
+    /**
+     * Each stripe is counted under its lock, so the total is only a snapshot across stripes.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private void replayPersisted(Stripe stripe, String key, String fingerprint, IdempotencyKeyRecord record,
+                                 CompletableFuture<BeerDTO> result) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            forget(stripe, key, result);
+            result.completeExceptionally(new IdempotencyKeyReusedException(key));
+            return;
+        }
+        if (record.getResponse() == null) {
+            forget(stripe, key, result);
+            result.completeExceptionally(new IdempotencyKeyInFlightException(key));
+            return;
+        }
+        try {
+            replays.increment();
+            result.complete(objectMapper.readValue(record.getResponse(), BeerDTO.class));
+        } catch (JsonProcessingException e) {
+            forget(stripe, key, result);
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * @return empty if this call claimed the key, otherwise the record of whoever did. An expired record is deleted
+     * and the key claimed anew.
+     */
+    private Optional<IdempotencyKeyRecord> claimPersisted(String key, String fingerprint) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                repository.claim(key, fingerprint, Instant.now().plus(ttl));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyKeyRecord> record = repository.findById(key);
+                if (record.isEmpty()) {
+                    // released by a failed change meanwhile
+                    continue;
+                }
+                if (record.get().getExpiresAt().isAfter(Instant.now()) || repository.deleteIfExpired(key, Instant.now()) == 0) {
+                    return record;
+                }
+            }
+        }
+        // claimed and released again in between: treat it as in flight and let the client retry
+        return Optional.of(new IdempotencyKeyRecord(key, fingerprint, null, Instant.now().plus(ttl)));
+    }
+
+    /**
+     * The change is already made at this point, so failing to remember it is logged rather than failing the request.
+     */
+    private void completePersisted(String key, BeerDTO beer) {
+        try {
+            repository.complete(key, objectMapper.writeValueAsString(beer));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not persist the result of Idempotency-Key {}", key, e);
+        }
+    }
+
+    /**
+     * A claim that cannot be deleted blocks retries with 409 until it expires.
+     */
+    private void releasePersisted(String key) {
+        try {
+            repository.deleteById(key);
+        } catch (RuntimeException e) {
+            log.warn("Could not release Idempotency-Key {} after its stock change failed", key, e);
+        }
+    }
+
+    private void purgeExpired() {
+        try {
+            int deleted = repository.deleteExpired(Instant.now());
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        } catch (RuntimeException e) {
+            log.error("Could not delete expired idempotency keys, retrying on the next run", e);
+        }
+    }
+
+    private void forget(Stripe stripe, String key, CompletableFuture<BeerDTO> result) {
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null && entry.result == result) {
+                stripe.entries.remove(key);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<BeerDTO> result;
+        private final long expiresAtNanos;
+
+        Entry(String fingerprint, CompletableFuture<BeerDTO> result, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAtNanos - now <= 0;
+        }
+    }
+
+    /**
+     * Guarded by its lock; entries are in insertion order, which is also expiry order.
+     */
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        Entry get(String key, long now) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+
+        void put(String key, Entry entry, long now) {
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (oldest.hasNext()) {
+                Entry candidate = oldest.next();
+                if (!candidate.isExpired(now) && entries.size() < capacity) {
+                    break;
+                }
+                oldest.remove();
+            }
+            entries.put(key, entry);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock updater based on the {@link Beer} version column: each attempt reads the row, checks the bounds in Java and
+ * writes it back only if nobody else changed it meanwhile. Conflicting attempts are retried with jittered exponential
+ * backoff up to {@code beerstock.stock.retry.max-attempts}.
+ *
+ * <p>{@code beerstock.stock.optimistic.attempts} and {@code beerstock.stock.optimistic.conflicts} give the conflict
+ * rate, {@code beerstock.stock.optimistic.retries} the retries each mutation needed and
+ * {@code beerstock.stock.optimistic.exhausted} the mutations that gave up. They are not tagged by beer, which would
+ * register meters for every id requested. Instead, the first {@code beerstock.stock.hot-beers.max-tracked} beers to
+ * reach {@code conflict-threshold} conflicts get a {@code beerstock.stock.optimistic.hot.conflicts} counter tagged
+ * with their id, counting all their conflicts.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.stock", name = "mode", havingValue = "optimistic")
+public class OptimisticBeerStockUpdater implements BeerStockUpdater {
+
+    private static final String METRIC_PREFIX = "beerstock.stock.optimistic.";
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BeerStockProperties.Retry retry;
+    private final Counter attempts;
+    private final Counter conflicts;
+    private final Counter exhausted;
+    private final DistributionSummary retries;
+    private final MeterRegistry meterRegistry;
+    private final BeerStockProperties.HotBeers hotBeers;
+
+    /**
+     * Conflicts of the beers that have not reached the threshold yet. Only found beers conflict, so this is bounded
+     * by the catalog.
+     */
+    private final Map<Long, AtomicInteger> conflictsByBeer = new ConcurrentHashMap<>();
+    private final Map<Long, Counter> hotBeerConflicts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OptimisticBeerStockUpdater(BeerRepository beerRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      BeerStockProperties beerStockProperties,
+                                      MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retry = beerStockProperties.getRetry();
+        this.attempts = meterRegistry.counter(METRIC_PREFIX + "attempts");
+        this.conflicts = meterRegistry.counter(METRIC_PREFIX + "conflicts");
+        this.exhausted = meterRegistry.counter(METRIC_PREFIX + "exhausted");
+        this.retries = DistributionSummary.builder(METRIC_PREFIX + "retries")
+                .description("Retries a stock mutation needed")
+                .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+        this.hotBeers = beerStockProperties.getHotBeers();
+    }
+
+    @Override
+    public Beer increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+        try {
+            return updateWithRetry(id, quantityToIncrement);
+        } catch (StockOutOfBoundsException e) {
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        }
+    }
+
+    @Override
+    public Beer decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
+        try {
+            return updateWithRetry(id, -quantityToDecrement);
+        } catch (StockOutOfBoundsException e) {
+            throw new BeerStockInsufficientException(id, quantityToDecrement, e.stock);
+        }
+    }
+
+    @Override
+    public int currentQuantity(Long id) throws BeerNotFoundException {
+        return beerRepository.findById(id)
+                .map(Beer::getQuantity)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+    }
+
+    private Beer updateWithRetry(Long id, int delta) throws BeerNotFoundException, BeerStockConflictException, StockOutOfBoundsException {
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                Beer updatedBeer = transactionTemplate.execute(status -> applyDelta(id, delta));
+                retries.record(attempt - 1);
+                return updatedBeer;
+            } catch (MissingBeerException e) {
+                throw new BeerNotFoundException(id);
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                recordConflict(id);
+                if (attempt >= retry.getMaxAttempts()) {
+                    retries.record(attempt - 1);
+                    exhausted.increment();
+                    throw new BeerStockConflictException(id, attempt);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void forget(Long id) {
+        conflictsByBeer.remove(id);
+        Counter hotBeer = hotBeerConflicts.remove(id);
+        if (hotBeer != null) {
+            meterRegistry.remove(hotBeer);
+        }
+    }
+
+    private void recordConflict(Long id) {
+        Counter hotBeer = hotBeerConflicts.get(id);
+        if (hotBeer != null) {
+            hotBeer.increment();
+            return;
+        }
+        if (hotBeerConflicts.size() >= hotBeers.getMaxTracked()) {
+            return;
+        }
+        int beerConflicts = conflictsByBeer.computeIfAbsent(id, beerId -> new AtomicInteger()).incrementAndGet();
+        if (beerConflicts >= hotBeers.getConflictThreshold()) {
+            trackHotBeer(id);
+        }
+    }
+
+    private synchronized void trackHotBeer(Long id) {
+        AtomicInteger beerConflicts = conflictsByBeer.remove(id);
+        if (beerConflicts == null || hotBeerConflicts.size() >= hotBeers.getMaxTracked()) {
+            return;
+        }
+        Counter hotBeer = Counter.builder(METRIC_PREFIX + "hot.conflicts")
+                .description("Conflicts of a beer that reached the hot beer threshold")
+                .tag("beer", String.valueOf(id))
+                .register(meterRegistry);
+        hotBeer.increment(beerConflicts.get());
+        hotBeerConflicts.put(id, hotBeer);
+    }
+
+    private Beer applyDelta(Long id, int delta) {
+        Beer beer = beerRepository.findById(id).orElseThrow(MissingBeerException::new);
+        int quantityAfterUpdate = beer.getQuantity() + delta;
+        if (quantityAfterUpdate < 0 || quantityAfterUpdate > beer.getMax()) {
+            throw new StockOutOfBoundsException(beer.getQuantity());
+        }
+        beer.setQuantity(quantityAfterUpdate);
+        return beerRepository.saveAndFlush(beer);
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(retry.getMaxBackoff().toNanos(), retry.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off a stock update", e);
+        }
+    }
+
+    private static class MissingBeerException extends RuntimeException {
+
+        MissingBeerException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static class StockOutOfBoundsException extends RuntimeException {
+
+        private final int stock;
+
+        StockOutOfBoundsException(int stock) {
+            super(null, null, false, false);
+            this.stock = stock;
+        }
+    }
+}
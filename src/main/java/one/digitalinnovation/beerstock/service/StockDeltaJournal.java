@@ -0,0 +1,169 @@
+package one.digitalinnovation.beerstock.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only journal of stock deltas, one {@code "<beerId> <delta>"} line per change, split into numbered
+ * segment files. Writers append to the current segment; the flusher rotates to a new segment and, once the closed
+ * segment's deltas are in the database, deletes it. A torn last line left by a crash is ignored on read.
+ */
+public class StockDeltaJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long currentSegment;
+
+    public StockDeltaJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts appending to the given segment, which must be newer than every segment already on disk.
+     */
+    public void open(long segment) {
+        writeLock.lock();
+        try {
+            closeChannel();
+            channel = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            currentSegment = segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void append(long beerId, int delta) {
+        ByteBuffer line = StandardCharsets.US_ASCII.encode(beerId + " " + delta + "\n");
+        writeLock.lock();
+        try {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the current segment and continues on the next one.
+     *
+     * @return the number of the segment just closed
+     */
+    public long rotate() {
+        writeLock.lock();
+        try {
+            long closedSegment = currentSegment;
+            open(closedSegment + 1);
+            return closedSegment;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<Long> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a closed segment, summing its deltas per beer id. Only newline-terminated lines are trusted.
+     */
+    public Map<Long, Integer> read(long segment) {
+        String content;
+        try {
+            content = new String(Files.readAllBytes(segmentPath(segment)), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<Long, Integer> deltas = new HashMap<>();
+        int lineStart = 0;
+        int lineEnd;
+        while ((lineEnd = content.indexOf('\n', lineStart)) >= 0) {
+            String line = content.substring(lineStart, lineEnd);
+            lineStart = lineEnd + 1;
+            int separator = line.indexOf(' ');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                long beerId = Long.parseLong(line.substring(0, separator));
+                int delta = Integer.parseInt(line.substring(separator + 1));
+                deltas.merge(beerId, delta, Integer::sum);
+            } catch (NumberFormatException e) {
+                // corrupted line, nothing that was acknowledged can be recovered from it
+            }
+        }
+        return deltas;
+    }
+
+    public void delete(long segment) {
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            closeChannel();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+}
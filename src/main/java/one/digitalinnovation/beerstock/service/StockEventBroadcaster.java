@@ -0,0 +1,264 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.config.StockEventsProperties;
+import one.digitalinnovation.beerstock.dto.StockEventDTO;
+import one.digitalinnovation.beerstock.exception.StockEventSubscribersExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed {@link StockEventDTO stock events} out to Server-Sent Events subscribers.
+ *
+ * <p>Publishing only enqueues: every subscriber has a bounded buffer drained by a small shared pool of sender threads,
+ * so a stock mutation never waits on a client's socket. A subscriber whose buffer fills while its sender is writing
+ * to it is too slow to keep up and is disconnected rather than slowing down or growing memory for everyone else;
+ * dashboards reconnect and re-read the catalog. A burst queued before any sender picked the subscriber up is the
+ * broadcaster's backlog rather than the client's, so it does not count. Emitters are completed on a thread of their
+ * own, since completing waits for a write in progress.</p>
+ *
+ * <p>Writes to a servlet response block, so a client that stops reading with full socket buffers would hold its
+ * sender thread, and a few of them would starve every healthy subscriber. A watchdog disconnects any subscriber whose
+ * write takes longer than {@code send-timeout} and adds a sender thread for as long as that write stays stuck, so
+ * {@code sender-threads} always remain for the others.</p>
+ */
+@Slf4j
+@Component
+public class StockEventBroadcaster {
+
+    private static final int IDLE = 0;
+    private static final int WRITING = 1;
+    private static final int STALLED = 2;
+
+    private final StockEventsProperties properties;
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService watchdog;
+    private final ExecutorService closers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter droppedSubscribers;
+
+    /**
+     * Sender threads standing in for senders stuck in a stalled write, guarded by {@code this}.
+     */
+    private int standInSenders;
+
+    @Autowired
+    public StockEventBroadcaster(StockEventsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        AtomicInteger senderCount = new AtomicInteger();
+        // cores only: the pool grows past sender-threads by raising its core size while writes are stalled
+        this.senders = new ThreadPoolExecutor(properties.getSenderThreads(),
+                properties.getSenderThreads() + properties.getMaxSubscribers(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "stock-events-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-events-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger closerCount = new AtomicInteger();
+        this.closers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stock-events-closer-" + closerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkIntervalMillis = Math.max(10, properties.getSendTimeout().toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::disconnectStalled, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        this.droppedSubscribers = meterRegistry.counter("beerstock.stock.events.dropped.subscribers");
+        Gauge.builder("beerstock.stock.events.subscribers", subscribers, Set::size)
+                .description("Clients currently subscribed to stock events")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() throws StockEventSubscribersExceededException {
+        return register(new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter register(SseEmitter emitter) throws StockEventSubscribersExceededException {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new StockEventSubscribersExceededException(properties.getMaxSubscribers());
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    /**
+     * Runs after the commit of the transaction that published the event, or right away outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockEvent(StockEventDTO event) {
+        SequencedEvent sequencedEvent = new SequencedEvent(sequence.incrementAndGet(), event);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.size() >= properties.getBufferSize() && !subscriber.awaitingSender) {
+                drop(subscriber);
+            } else {
+                subscriber.queue.add(sequencedEvent);
+                subscriber.scheduleSend();
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> closers.execute(subscriber.emitter::complete));
+        subscribers.clear();
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+        closers.shutdown();
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            droppedSubscribers.increment();
+            log.debug("Disconnecting a stock events subscriber that fell {} events behind", properties.getBufferSize());
+            subscriber.queue.clear();
+            closers.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private void disconnectStalled() {
+        try {
+            disconnectStalledSubscribers();
+        } catch (RuntimeException e) {
+            // an exception escaping would cancel the watchdog for good
+            log.warn("Failed to check stock events subscribers for stalled writes", e);
+        }
+    }
+
+    private void disconnectStalledSubscribers() {
+        long now = System.nanoTime();
+        long sendTimeoutNanos = properties.getSendTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.writeState.get() == WRITING && now - subscriber.writeStartedNanos > sendTimeoutNanos
+                    && subscriber.writeState.compareAndSet(WRITING, STALLED)) {
+                adjustSenders(1);
+                if (subscribers.remove(subscriber)) {
+                    droppedSubscribers.increment();
+                    log.debug("Disconnecting a stock events subscriber whose write stalled for more than {}", properties.getSendTimeout());
+                    subscriber.queue.clear();
+                    closers.execute(subscriber.emitter::complete);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the watchdog and by stalled senders when their write finally returns. Past the pool's maximum, stalled
+     * writes only get stand-ins as earlier ones return.
+     */
+    private synchronized void adjustSenders(int delta) {
+        standInSenders += delta;
+        senders.setCorePoolSize(Math.min(properties.getSenderThreads() + standInSenders, senders.getMaximumPoolSize()));
+    }
+
+    private static final class SequencedEvent {
+
+        private final long id;
+        private final StockEventDTO event;
+
+        SequencedEvent(long id, StockEventDTO event) {
+            this.id = id;
+            this.event = event;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SequencedEvent> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        /**
+         * Whether a send is scheduled but no sender thread has started it yet.
+         */
+        private volatile boolean awaitingSender;
+        private final AtomicInteger writeState = new AtomicInteger(IDLE);
+
+        /**
+         * {@link System#nanoTime()} when the write in progress started.
+         */
+        private volatile long writeStartedNanos;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingQueue<>();
+        }
+
+        /**
+         * At most one sender drains a subscriber at a time, which keeps its events in order.
+         */
+        void scheduleSend() {
+            if (sending.compareAndSet(false, true)) {
+                awaitingSender = true;
+                senders.execute(this::send);
+            }
+        }
+
+        private void send() {
+            awaitingSender = false;
+            do {
+                SequencedEvent sequencedEvent;
+                while ((sequencedEvent = queue.poll()) != null) {
+                    writeStartedNanos = System.nanoTime();
+                    writeState.set(WRITING);
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(sequencedEvent.id))
+                                .name(sequencedEvent.event.getType().name())
+                                .data(sequencedEvent.event, MediaType.APPLICATION_JSON));
+                    } catch (IOException | IllegalStateException e) {
+                        // the client went away or the emitter was completed meanwhile
+                        subscribers.remove(this);
+                        queue.clear();
+                        return;
+                    } finally {
+                        if (!writeState.compareAndSet(WRITING, IDLE)) {
+                            // disconnected by the watchdog, which stood in another sender for this one meanwhile
+                            adjustSenders(-1);
+                        }
+                    }
+                    if (writeState.get() == STALLED) {
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (!queue.isEmpty() && sending.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Units of each beer held by active reservations, which {@link BeerService} keeps out of reach of plain decrements.
+ *
+ * <p>Holds live in memory only, like the write-behind counters: each instance only sees the holds it granted, and a
+ * restart releases them all. Beers without holds have no entry, so the map only grows with the beers being checked
+ * out. Deleting a beer drops its holds; its reservations then fail to commit and release nothing.</p>
+ */
+@Component
+public class StockHolds {
+
+    private final ConcurrentHashMap<Long, Integer> held = new ConcurrentHashMap<>();
+
+    public int heldFor(Long id) {
+        return held.getOrDefault(id, 0);
+    }
+
+    /**
+     * @return the units of the beer held once these are added
+     */
+    int hold(Long id, int quantity) {
+        return held.merge(id, quantity, Integer::sum);
+    }
+
+    void release(Long id, int quantity) {
+        held.computeIfPresent(id, (beerId, units) -> units > quantity ? units - quantity : null);
+    }
+
+    void clear(Long id) {
+        held.remove(id);
+    }
+}
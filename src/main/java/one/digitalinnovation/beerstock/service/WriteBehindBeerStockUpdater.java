@@ -0,0 +1,275 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.StockJournalCheckpoint;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.StockJournalCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind stock updater: quantities live in per-beer counters that enforce the zero and max bounds, every
+ * accepted delta is appended to a local {@link StockDeltaJournal} before it is applied, and a background flusher
+ * periodically writes the coalesced deltas to the beer table in a single transaction.
+ *
+ * <p>On startup the journal segments not covered by the {@link StockJournalCheckpoint} are replayed, so deltas
+ * acknowledged before a crash are not lost. Database reads ({@code findByName}, {@code listAll}) lag behind by at most
+ * one flush interval, and the counters assume this instance is the only writer of stock quantities.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "beerstock.stock", name = "mode", havingValue = "write-behind")
+public class WriteBehindBeerStockUpdater implements BeerStockUpdater {
+
+    private final BeerRepository beerRepository;
+    private final StockJournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BeerStockProperties.WriteBehind config;
+    private final StockDeltaJournal journal;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Mutations share the read side; the flusher takes the write side only to swap journal segment and pending deltas.
+     */
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public WriteBehindBeerStockUpdater(BeerRepository beerRepository,
+                                       StockJournalCheckpointRepository checkpointRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       BeerStockProperties beerStockProperties) {
+        this.beerRepository = beerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = beerStockProperties.getWriteBehind();
+        this.journal = new StockDeltaJournal(config.getJournalDirectory(), config.isFsync());
+    }
+
+    @PostConstruct
+    public void start() {
+        long nextSegment = replayJournal() + 1;
+        journal.open(nextSegment);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = config.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(config.getFlushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        flush();
+        journal.close();
+    }
+
+    @Override
+    public Beer increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        StockCounter counter = counterFor(id);
+        flushLock.readLock().lock();
+        try {
+            int quantityAfterIncrement = counter.add(quantityToIncrement, () -> journal.append(id, quantityToIncrement));
+            if (quantityAfterIncrement < 0) {
+                throw new BeerStockExceededException(id, quantityToIncrement);
+            }
+            return counter.snapshot(quantityAfterIncrement);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Beer decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException {
+        StockCounter counter = counterFor(id);
+        flushLock.readLock().lock();
+        try {
+            int quantityAfterDecrement = counter.add(-quantityToDecrement, () -> journal.append(id, -quantityToDecrement));
+            if (quantityAfterDecrement < 0) {
+                throw new BeerStockInsufficientException(id, quantityToDecrement, counter.quantity.get());
+            }
+            return counter.snapshot(quantityAfterDecrement);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int currentQuantity(Long id) throws BeerNotFoundException {
+        return counterFor(id).quantity.get();
+    }
+
+    @Override
+    public void forget(Long id) {
+        counters.remove(id);
+    }
+
+    /**
+     * Writes all pending deltas to the database and discards the journal segment that recorded them.
+     */
+    public void flush() {
+        long closedSegment;
+        Map<Long, Integer> deltas = new HashMap<>();
+        flushLock.writeLock().lock();
+        try {
+            closedSegment = journal.rotate();
+            counters.forEach((id, counter) -> {
+                int delta = counter.pending.getAndSet(0);
+                if (delta != 0) {
+                    deltas.put(id, delta);
+                }
+            });
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (deltas.isEmpty() && journal.segments().get(0) == closedSegment) {
+            // every delta of the segment cancelled out and no failed flush is pending: nothing to write
+            journal.delete(closedSegment);
+            return;
+        }
+        try {
+            applyDeltas(deltas, closedSegment);
+        } catch (RuntimeException e) {
+            deltas.forEach((id, delta) -> {
+                StockCounter counter = counters.get(id);
+                if (counter != null) {
+                    counter.pending.addAndGet(delta);
+                }
+            });
+            throw e;
+        }
+        deleteSegmentsUpTo(closedSegment);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Could not flush stock deltas, they will be retried on the next flush", e);
+        }
+    }
+
+    /**
+     * @return the newest segment found on disk or in the checkpoint
+     */
+    private long replayJournal() {
+        long checkpoint = checkpointRepository.findById(StockJournalCheckpoint.ID)
+                .map(StockJournalCheckpoint::getSegment)
+                .orElse(0L);
+        List<Long> segments = journal.segments();
+        long lastSegment = checkpoint;
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (long segment : segments) {
+            if (segment > checkpoint) {
+                journal.read(segment).forEach((id, delta) -> deltas.merge(id, delta, Integer::sum));
+            }
+            lastSegment = Math.max(lastSegment, segment);
+        }
+        if (lastSegment > checkpoint) {
+            log.info("Replaying stock deltas of {} beers from journal segments {} to {}", deltas.size(), checkpoint + 1, lastSegment);
+            applyDeltas(deltas, lastSegment);
+        }
+        deleteSegmentsUpTo(lastSegment);
+        return lastSegment;
+    }
+
+    private void applyDeltas(Map<Long, Integer> deltas, long segment) {
+        transactionTemplate.execute(status -> {
+            deltas.forEach(beerRepository::applyQuantityDelta);
+            return checkpointRepository.save(new StockJournalCheckpoint(StockJournalCheckpoint.ID, segment));
+        });
+    }
+
+    private void deleteSegmentsUpTo(long segment) {
+        for (long existingSegment : journal.segments()) {
+            if (existingSegment <= segment) {
+                journal.delete(existingSegment);
+            }
+        }
+    }
+
+    private StockCounter counterFor(Long id) throws BeerNotFoundException {
+        StockCounter counter = counters.get(id);
+        if (counter != null) {
+            return counter;
+        }
+        Beer beer = beerRepository.findById(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        StockCounter loadedCounter = new StockCounter(beer);
+        StockCounter existingCounter = counters.putIfAbsent(id, loadedCounter);
+        return existingCounter != null ? existingCounter : loadedCounter;
+    }
+
+    private static class StockCounter {
+
+        private final Beer beer;
+        private final AtomicInteger quantity;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        StockCounter(Beer beer) {
+            this.beer = beer;
+            this.quantity = new AtomicInteger(beer.getQuantity());
+        }
+
+        /**
+         * Journals the delta before applying it, so a delta whose append fails is neither applied nor flushed. The
+         * lock keeps the bounds check valid until the delta is applied; it is a lock rather than a monitor so virtual
+         * threads are not pinned during the append.
+         *
+         * @return the quantity after adding the delta, or -1 if it would leave the [0, max] range
+         */
+        int add(int delta, Runnable journalAppend) {
+            lock.lock();
+            try {
+                int updated = quantity.get() + delta;
+                if (updated < 0 || updated > beer.getMax()) {
+                    return -1;
+                }
+                journalAppend.run();
+                quantity.set(updated);
+                pending.addAndGet(delta);
+                return updated;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Beer snapshot(int currentQuantity) {
+            Beer copy = new Beer();
+            copy.setId(beer.getId());
+            copy.setName(beer.getName());
+            copy.setBrand(beer.getBrand());
+            copy.setMax(beer.getMax());
+            copy.setQuantity(currentQuantity);
+            copy.setType(beer.getType());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package one.digitalinnovation.beerstock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.metrics.VirtualThreadPinningMonitor;
+import one.digitalinnovation.beerstock.service.AsyncBeerService;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every request, and the repository calls it makes, on its own virtual thread instead of a Tomcat worker, so the
+ * number of requests in flight is bounded by {@code server.tomcat.max-connections} rather than by
+ * {@code server.tomcat.threads.max}. Database work stays bounded by the Hikari pool, sized on its own through
+ * {@code spring.datasource.hikari.maximum-pool-size}: requests beyond it park cheaply while waiting for a connection.
+ * The bulkheads of {@link AsyncBeerService} run their calls on this executor
+ * too, capped by {@code beerstock.bulkhead.*.max-concurrent-calls} rather than by fixed thread pools.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.threads", name = "virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(name = AsyncBeerService.VIRTUAL_THREAD_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Also used by Spring MVC for asynchronous request processing, which would otherwise fall back to a thread per
+     * task of its own.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new ConcurrentTaskExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                                                   VirtualThreadProperties virtualThreadProperties) {
+        return new VirtualThreadPinningMonitor(meterRegistry, virtualThreadProperties.getPinnedThreshold());
+    }
+}
@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Whether requests run on virtual threads instead of the Tomcat worker pool.
+     */
+    private boolean virtual = false;
+
+    /**
+     * How long a virtual thread must stay pinned to its carrier before it is reported.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,83 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} events: a virtual thread that blocks inside a {@code synchronized}
+ * section (ours or a library's, such as a JDBC driver) keeps its carrier thread, and enough of them starve every
+ * other virtual thread.
+ *
+ * <p>Each pinning is timed in {@code beerstock.threads.virtual.pinned}, tagged with the first frame outside the JDK,
+ * and the full stack of every new site is logged once.</p>
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    public static final String PINNED_TIMER = "beerstock.threads.virtual.pinned";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+    private final RecordingStream recording = new RecordingStream();
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+    }
+
+    @PostConstruct
+    public void start() {
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    public void close() {
+        recording.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames()
+                : List.of();
+        String site = pinningSite(frames);
+        meterRegistry.timer(PINNED_TIMER, "site", site).record(event.getDuration());
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned to its carrier for {} ms at {}:\n{}",
+                    event.getDuration().toMillis(), site, format(event.getStackTrace()));
+        }
+    }
+
+    private static String pinningSite(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .filter(method -> !method.startsWith("java.") && !method.startsWith("jdk.") && !method.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown");
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\tno stack trace";
+        }
+        return stackTrace.getFrames().stream()
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
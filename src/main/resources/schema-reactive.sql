@@ -0,0 +1,17 @@
+create sequence if not exists beer_sequence start with 1 increment by 1;
+
+create table if not exists beer (
+    id bigint not null primary key,
+    name varchar(255) not null,
+    normalized_name varchar(255) not null,
+    brand varchar(255) not null,
+    max integer not null,
+    quantity integer not null,
+    type varchar(255) not null,
+    version bigint,
+    constraint uk_beer_name unique (name),
+    constraint uk_beer_normalized_name unique (normalized_name)
+);
+
+create index if not exists idx_beer_type_id on beer (type, id);
+create index if not exists idx_beer_brand_id on beer (brand, id);
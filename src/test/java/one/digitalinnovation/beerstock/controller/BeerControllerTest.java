@@ -1,34 +1,73 @@
 package one.digitalinnovation.beerstock.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.BulkheadProperties;
+import one.digitalinnovation.beerstock.config.IdempotencyProperties;
+import one.digitalinnovation.beerstock.dto.BeerBatchResultDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.enums.BeerBatchItemStatus;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentMode;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.exception.StockEventSubscribersExceededException;
+import one.digitalinnovation.beerstock.repository.IdempotencyKeyRepository;
+import one.digitalinnovation.beerstock.service.AsyncBeerService;
+import one.digitalinnovation.beerstock.service.BeerCatalogExporter;
+import one.digitalinnovation.beerstock.service.BeerReservationService;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.service.BeerStockAdjustmentService;
+import one.digitalinnovation.beerstock.service.IdempotencyKeyStore;
+import one.digitalinnovation.beerstock.service.StockEventBroadcaster;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 
 import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,17 +84,42 @@ public class BeerControllerTest {
     @Mock
     private BeerService beerService;
 
-    @InjectMocks
-    private BeerController beerController;
+    @Mock
+    private BeerCatalogExporter beerCatalogExporter;
+
+    @Mock
+    private BeerStockAdjustmentService beerStockAdjustmentService;
+
+    @Mock
+    private StockEventBroadcaster stockEventBroadcaster;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private BeerReservationService beerReservationService;
+
+    private AsyncBeerService asyncBeerService;
 
     @BeforeEach
     void setUp() {
+        asyncBeerService = new AsyncBeerService(beerService, beerReservationService, new BulkheadProperties(), new SimpleMeterRegistry());
+        IdempotencyKeyStore idempotencyKeyStore = new IdempotencyKeyStore(new IdempotencyProperties(),
+                idempotencyKeyRepository, new ObjectMapper(), new SimpleMeterRegistry());
+        BeerController beerController = new BeerController(beerService, asyncBeerService, beerCatalogExporter,
+                beerStockAdjustmentService, stockEventBroadcaster, idempotencyKeyStore);
         mockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setControllerAdvice(new BeerControllerAdvice())
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        asyncBeerService.close();
+    }
+
     @Test
     void whenPOSTIsCalledThenABeerIsCreated() throws Exception {
         // given
@@ -65,7 +129,7 @@ public class BeerControllerTest {
         when(beerService.createBeer(beerDTO)).thenReturn(beerDTO);
 
         // then
-        mockMvc.perform(post(BEER_API_URL_PATH)
+        performAsync(post(BEER_API_URL_PATH)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(beerDTO)))
                 .andExpect(status().isCreated())
@@ -74,6 +138,28 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.type", is(beerDTO.getType().toString())));
     }
 
+    @Test
+    void whenPOSTBatchIsCalledThenPerItemResultsAreReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO duplicatedBeerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        List<BeerBatchResultDTO> results = List.of(
+                BeerBatchResultDTO.builder().index(0).status(BeerBatchItemStatus.CREATED).beer(beerDTO).errors(List.of()).build(),
+                BeerBatchResultDTO.builder().index(1).status(BeerBatchItemStatus.DUPLICATE).beer(duplicatedBeerDTO).errors(List.of()).build());
+
+        // when
+        when(beerService.createBeers(List.of(duplicatedBeerDTO, duplicatedBeerDTO))).thenReturn(results);
+
+        // then
+        mockMvc.perform(post(BEER_API_URL_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(List.of(duplicatedBeerDTO, duplicatedBeerDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].beer.id", is(beerDTO.getId().intValue())))
+                .andExpect(jsonPath("$[1].status", is("DUPLICATE")));
+    }
+
     @Test
     void whenPOSTIsCalledWithoutRequiredFieldThenAnErrorIsReturned() throws Exception {
         // given
@@ -95,8 +181,7 @@ public class BeerControllerTest {
         when(beerService.findByName(expectedBeerDTO.getName())).thenReturn(expectedBeerDTO);
 
         // then
-        mockMvc
-                .perform(get(String.format("%s/%s", BEER_API_URL_PATH, expectedBeerDTO.getName())))
+        performAsync(get(String.format("%s/%s", BEER_API_URL_PATH, expectedBeerDTO.getName())))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", is(expectedBeerDTO.getName())))
                 .andExpect(jsonPath("$.brand", is(expectedBeerDTO.getBrand())))
@@ -111,29 +196,165 @@ public class BeerControllerTest {
         when(beerService.findByName(notRegisteredName)).thenThrow(BeerNotFoundException.class);
 
         // then
-        mockMvc.perform(get(String.format("%s/%s", BEER_API_URL_PATH, notRegisteredName)))
+        performAsync(get(String.format("%s/%s", BEER_API_URL_PATH, notRegisteredName)))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenGETIsCalledWithoutRegisteredNameThenErrorBodyIsReturned() throws Exception {
+        String notRegisteredName = "unregistered";
+
+        // when
+        when(beerService.findByName(notRegisteredName)).thenThrow(new BeerNotFoundException(notRegisteredName));
+
+        // then
+        performAsync(get(String.format("%s/%s", BEER_API_URL_PATH, notRegisteredName)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)))
+                .andExpect(jsonPath("$.error", is("Not Found")))
+                .andExpect(jsonPath("$.message", is("Beer with name unregistered not found in the system.")))
+                .andExpect(jsonPath("$.path", is(BEER_API_URL_PATH + "/" + notRegisteredName)));
+    }
+
     @Test
     void whenGETListWithBeersIsCalledThenOkStatusIsReturned() throws Exception {
         // given
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerPageDTO beerPageDTO = BeerPageDTO.builder()
+                .beers(Collections.singletonList(beerDTO))
+                .page(0)
+                .size(20)
+                .build();
 
         //when
-        when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+        when(beerService.listPage(0, 20)).thenReturn(beerPageDTO);
 
         // then
-        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+        performAsync(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
                 .andExpect(jsonPath("$[0].brand", is(beerDTO.getBrand())))
-                .andExpect(jsonPath("$[0].type", is(beerDTO.getType().toString())));
+                .andExpect(jsonPath("$[0].type", is(beerDTO.getType().toString())))
+                .andExpect(header().doesNotExist(BeerPageResponses.NEXT_CURSOR_HEADER));
     }
 
     @Test
     void whenGETListWithoutBeersIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        BeerPageDTO beerPageDTO = BeerPageDTO.builder()
+                .beers(Collections.emptyList())
+                .page(0)
+                .size(20)
+                .build();
+
+        //when
+        when(beerService.listPage(0, 20)).thenReturn(beerPageDTO);
+
+        // then
+        performAsync(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenGETListIsCalledWithCursorThenNextPageAfterItIsReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(11L).build().toBeerDTO();
+        BeerPageDTO beerPageDTO = BeerPageDTO.builder()
+                .beers(Collections.singletonList(beerDTO))
+                .size(1)
+                .nextCursor(beerDTO.getId())
+                .build();
+
+        //when
+        when(beerService.listAfter(10L, 1)).thenReturn(beerPageDTO);
+
+        // then
+        performAsync(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "?after=10&size=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
+                .andExpect(header().string(BeerPageResponses.NEXT_CURSOR_HEADER, "11"))
+                .andExpect(header().string(HttpHeaders.LINK, "<http://localhost" + BEER_API_URL_PATH + "?size=1&after=11>; rel=\"next\""));
+    }
+
+    @Test
+    void whenGETListIsCalledWithFiltersThenFilteredPageIsReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerFilterDTO expectedFilter = BeerFilterDTO.builder()
+                .type(BeerType.LAGER)
+                .brand("Ambev")
+                .minFillRatio(0.5)
+                .build();
+        BeerPageDTO beerPageDTO = BeerPageDTO.builder()
+                .beers(Collections.singletonList(beerDTO))
+                .size(20)
+                .build();
+
+        //when
+        when(beerService.listFiltered(expectedFilter, null, 20)).thenReturn(beerPageDTO);
+
+        // then
+        performAsync(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "?type=LAGER&brand=Ambev&minFillRatio=0.5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGETListIsCalledWithFillRatioAboveOneThenBadRequestStatusIsReturned() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "?maxFillRatio=1.5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerService);
+    }
+
+    @Test
+    void whenGETAutocompleteIsCalledThenMatchingSuggestionsAreReturned() throws Exception {
+        // given
+        BeerSuggestionDTO suggestion = BeerSuggestionDTO.builder().id(1L).name("Brahma").brand("Ambev").build();
+
+        //when
+        when(beerService.autocomplete("bra", 5)).thenReturn(Collections.singletonList(suggestion));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/autocomplete?prefix=bra&limit=5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Brahma")))
+                .andExpect(jsonPath("$[0].brand", is("Ambev")));
+    }
+
+    @Test
+    void whenGETStockEventsIsCalledThenAnEventStreamIsStarted() throws Exception {
+        // given
+        SseEmitter emitter = new SseEmitter();
+
+        //when
+        when(stockEventBroadcaster.subscribe()).thenReturn(emitter);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/stock-events")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void whenGETStockEventsIsCalledWithTooManySubscribersThenServiceUnavailableStatusIsReturned() throws Exception {
+        //when
+        when(stockEventBroadcaster.subscribe()).thenThrow(new StockEventSubscribersExceededException(1));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/stock-events")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void whenGETListIsCalledUnpagedThenAllBeersAreReturned() throws Exception {
         // given
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
@@ -141,9 +362,32 @@ public class BeerControllerTest {
         when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
 
         // then
-        mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+        performAsync(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "?unpaged=true")
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGETListIsCalledWithNdjsonFormatThenCatalogIsStreamed() throws Exception {
+        // given
+        String exportedLine = asJsonString(BeerDTOBuilder.builder().build().toBeerDTO()) + "\n";
+
+        //when
+        when(beerCatalogExporter.exportAll(any())).thenAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(exportedLine.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "?format=ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BeerCatalogExporter.NDJSON_MEDIA_TYPE))
+                .andExpect(content().string(exportedLine));
     }
 
     @Test
@@ -155,7 +399,7 @@ public class BeerControllerTest {
         doNothing().when(beerService).deleteById(beerDTO.getId());
 
         // then
-        mockMvc.perform(MockMvcRequestBuilders.delete(BEER_API_URL_PATH + "/" + beerDTO.getId())
+        performAsync(MockMvcRequestBuilders.delete(BEER_API_URL_PATH + "/" + beerDTO.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
 
@@ -169,11 +413,51 @@ public class BeerControllerTest {
         doThrow(BeerNotFoundException.class).when(beerService).deleteById(INVALID_BEER_ID);
 
         // then
-        mockMvc.perform(MockMvcRequestBuilders.delete(BEER_API_URL_PATH + "/" + INVALID_BEER_ID)
+        performAsync(MockMvcRequestBuilders.delete(BEER_API_URL_PATH + "/" + INVALID_BEER_ID)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenPOSTStockAdjustmentsIsCalledThenPerItemResultsAreReturned() throws Exception {
+        // given
+        StockAdjustmentBatchDTO batch = StockAdjustmentBatchDTO.builder()
+                .mode(StockAdjustmentMode.BEST_EFFORT)
+                .adjustments(List.of(
+                        StockAdjustmentDTO.builder().id(VALID_BEER_ID).delta(10).build(),
+                        StockAdjustmentDTO.builder().id(INVALID_BEER_ID).delta(-5).build()))
+                .build();
+        List<StockAdjustmentResultDTO> results = List.of(
+                StockAdjustmentResultDTO.builder().index(0).id(VALID_BEER_ID).delta(10).status(StockAdjustmentStatus.APPLIED).quantity(20).build(),
+                StockAdjustmentResultDTO.builder().index(1).id(INVALID_BEER_ID).delta(-5).status(StockAdjustmentStatus.NOT_FOUND).build());
+
+        // when
+        when(beerStockAdjustmentService.adjust(batch)).thenReturn(results);
+
+        // then
+        mockMvc.perform(post(BEER_API_URL_PATH + "/stock-adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("APPLIED")))
+                .andExpect(jsonPath("$[0].quantity", is(20)))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+    }
+
+    @Test
+    void whenPOSTStockAdjustmentsIsCalledWithDeltaOutOfRangeThenBadRequestStatusIsReturned() throws Exception {
+        // given
+        StockAdjustmentBatchDTO batch = StockAdjustmentBatchDTO.builder()
+                .adjustments(List.of(StockAdjustmentDTO.builder().id(VALID_BEER_ID).delta(500).build()))
+                .build();
+
+        // then
+        mockMvc.perform(post(BEER_API_URL_PATH + "/stock-adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(batch)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenPATCHIsCalledToIncrementDiscountThenOKstatusIsReturned() throws Exception {
         QuantityDTO quantityDTO = QuantityDTO.builder()
@@ -185,7 +469,7 @@ public class BeerControllerTest {
 
         when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(beerDTO);
 
-        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+        performAsync(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(quantityDTO))).andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", is(beerDTO.getName())))
@@ -205,7 +489,7 @@ public class BeerControllerTest {
 
         when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity())).thenThrow(BeerStockExceededException.class);
 
-        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+        performAsync(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(quantityDTO))).andExpect(status().isBadRequest());
     }
@@ -217,7 +501,7 @@ public class BeerControllerTest {
                 .build();
 
         when(beerService.increment(INVALID_BEER_ID, quantityDTO.getQuantity())).thenThrow(BeerNotFoundException.class);
-        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+        performAsync(patch(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(quantityDTO)))
                 .andExpect(status().isNotFound());
@@ -235,7 +519,7 @@ public class BeerControllerTest {
         when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(expectedBeerAfterDecrementDTO);
 
         // then
-        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+        performAsync(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(quantityDTO)))
                         .andExpect(status().isOk())
@@ -243,6 +527,29 @@ public class BeerControllerTest {
                         .andExpect(jsonPath("$.quantity", is(expectedBeerAfterDecrementDTO.getQuantity())));
     }
 
+    @Test
+    void whenPATCHDecrementIsRetriedWithTheSameIdempotencyKeyThenStockIsDecrementedOnce() throws Exception {
+        // given
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+
+        BeerDTO expectedBeerAfterDecrementDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        expectedBeerAfterDecrementDTO.setQuantity(expectedBeerAfterDecrementDTO.getQuantity() - quantityDTO.getQuantity());
+
+        // when
+        when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(expectedBeerAfterDecrementDTO);
+
+        // then
+        for (int attempt = 0; attempt < 2; attempt++) {
+            performAsync(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                    .header(IdempotencyKeyStore.HEADER, "order-42")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(quantityDTO)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.quantity", is(expectedBeerAfterDecrementDTO.getQuantity())));
+        }
+        verify(beerService, times(1)).decrement(VALID_BEER_ID, quantityDTO.getQuantity());
+    }
+
     @Test
     void whenPATCHIsCalledToDecrementGreaterThanCurrentStockThenBadRequestStatusIsReturned() throws Exception {
         // given
@@ -254,7 +561,7 @@ public class BeerControllerTest {
         when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity())).thenThrow(BeerStockInsufficientException.class);
 
         // then
-        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+        performAsync(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(asJsonString(quantityDTO)))
                             .andExpect(status().isBadRequest());
@@ -269,9 +576,86 @@ public class BeerControllerTest {
         when(beerService.decrement(INVALID_BEER_ID, quantityDTO.getQuantity())).thenThrow(BeerNotFoundException.class);
 
         // then
-        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+        performAsync(patch(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(asJsonString(quantityDTO)))
                             .andExpect(status().isNotFound());
     }
+
+    /**
+     * Service calls run on the bulkheads, so the response is only written by the async dispatch that follows.
+     */
+    @Test
+    void whenPOSTIsCalledToReserveBeerQuantityThenCreatedStatusIsReturned() throws Exception {
+        // given
+        ReservationRequestDTO reservationRequestDTO = ReservationRequestDTO.builder().quantity(4).ttlSeconds(60L).build();
+        ReservationDTO reservationDTO = ReservationDTO.builder()
+                .id("7b1f0c0e-reservation")
+                .beerId(VALID_BEER_ID)
+                .quantity(4)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .available(6)
+                .build();
+
+        // when
+        when(beerReservationService.hold(VALID_BEER_ID, reservationRequestDTO)).thenReturn(reservationDTO);
+
+        // then
+        performAsync(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(reservationRequestDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(reservationDTO.getId())))
+                .andExpect(jsonPath("$.available", is(6)));
+    }
+
+    @Test
+    void whenPOSTIsCalledToReserveWithoutQuantityThenBadRequestStatusIsReturned() throws Exception {
+        // given
+        ReservationRequestDTO reservationRequestDTO = ReservationRequestDTO.builder().ttlSeconds(60L).build();
+
+        // then
+        mockMvc.perform(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(reservationRequestDTO)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(beerReservationService);
+    }
+
+    @Test
+    void whenPOSTIsCalledToCommitReservationTwiceWithSameIdempotencyKeyThenItIsCommittedOnce() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        expectedBeerDTO.setQuantity(expectedBeerDTO.getQuantity() - 4);
+
+        // when
+        when(beerReservationService.commit("7b1f0c0e-reservation")).thenReturn(expectedBeerDTO);
+
+        // then
+        for (int attempt = 0; attempt < 2; attempt++) {
+            performAsync(post(BEER_API_URL_PATH + "/reservations/7b1f0c0e-reservation/commit")
+                    .header(IdempotencyKeyStore.HEADER, "checkout-42"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.quantity", is(expectedBeerDTO.getQuantity())));
+        }
+        verify(beerReservationService, times(1)).commit("7b1f0c0e-reservation");
+    }
+
+    @Test
+    void whenDELETEIsCalledWithExpiredReservationThenNotFoundStatusIsReturned() throws Exception {
+        // when
+        doThrow(new ReservationNotFoundException("7b1f0c0e-reservation"))
+                .when(beerReservationService).release("7b1f0c0e-reservation");
+
+        // then
+        performAsync(MockMvcRequestBuilders.delete(BEER_API_URL_PATH + "/reservations/7b1f0c0e-reservation"))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(mvcResult));
+    }
 }
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class BeerTest {
+
+    @Test
+    void whenNameIsNormalizedThenItIsTrimmedLowercasedAndAccentFree() {
+        assertThat(Beer.normalizeName("  Brahma  "), is(equalTo("brahma")));
+        assertThat(Beer.normalizeName("Kölsch Ãmbar"), is(equalTo("kolsch ambar")));
+        assertThat(Beer.normalizeName("ÇERVEJA"), is(equalTo("cerveja")));
+        assertThat(Beer.normalizeName(null), is(nullValue()));
+    }
+
+    @Test
+    void whenBeerIsSavedThenNormalizedNameFollowsTheName() {
+        // given
+        Beer beer = new Beer();
+        beer.setName("Bohemia Weiss");
+
+        // when
+        beer.normalizeName();
+
+        // then
+        assertThat(beer.getNormalizedName(), is(equalTo("bohemia weiss")));
+    }
+}
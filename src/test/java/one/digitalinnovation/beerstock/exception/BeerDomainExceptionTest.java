@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class BeerDomainExceptionTest {
+
+    @Test
+    void whenDomainExceptionIsCreatedThenNoStackTraceIsCaptured() {
+        // when
+        BeerNotFoundException exception = new BeerNotFoundException("Brahma");
+
+        // then
+        assertThat(exception.getStackTrace(), emptyArray());
+        assertThat(exception.getStatus(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void whenMessageIsReadThenItIsFormattedOnce() {
+        // given
+        BeerStockInsufficientException exception = new BeerStockInsufficientException(1L, 10, 5);
+
+        // when
+        String message = exception.getMessage();
+
+        // then
+        assertThat(message, equalTo("Insufficient Stock for decrement 10 from beer with ID: 1. Current Stock: 5"));
+        assertThat(exception.getMessage(), sameInstance(message));
+    }
+}
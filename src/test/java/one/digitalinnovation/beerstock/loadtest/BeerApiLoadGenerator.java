@@ -0,0 +1,231 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator replaying the requests of the Beer API Postman collection: every worker sends one
+ * request at a time, picked at random by the configured mix, and records its latency once the warmup is over.
+ *
+ * <p>The collection hardcodes a beer name and id, so requests are rewritten before being sent: numeric path segments
+ * become the id of a seeded beer (or, for deletes, of a beer created during the run), the sample name becomes a
+ * seeded beer name, and created beers get a unique name. Latencies are measured from send to full response, so, as
+ * with any closed-loop generator, a stalled server also slows down the request rate.</p>
+ *
+ * <p>Run {@link #main(String[])} against an application started with {@code ./mvnw spring-boot:run}, passing
+ * {@code -Dloadtest.base-url} and the {@link LoadTestSettings} properties, or {@code ./mvnw -P load-test test}.</p>
+ */
+public class BeerApiLoadGenerator {
+
+    private static final String CREATE_REQUEST = "Create Beer";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEEDED_MAX = 500;
+    private static final int SEEDED_QUANTITY = 100;
+
+    private final LoadTestSettings settings;
+    private final List<PostmanRequest> requests = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final PostmanRequest createRequest;
+    private final ObjectNode createBody;
+    private final String sampleName;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong createdNames = new AtomicLong();
+    private final List<Long> seededIds = new ArrayList<>();
+    private final List<String> seededNames = new ArrayList<>();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    public BeerApiLoadGenerator(LoadTestSettings settings, PostmanCollection collection) throws IOException {
+        if (settings.getSeedBeers() < 1 || settings.getMix().isEmpty()) {
+            throw new IllegalArgumentException("At least one seeded beer and one request in the mix are required");
+        }
+        this.settings = settings;
+        this.createRequest = collection.find(CREATE_REQUEST)
+                .orElseThrow(() -> new IllegalArgumentException("The collection has no '" + CREATE_REQUEST + "' request"));
+        this.createBody = (ObjectNode) objectMapper.readTree(createRequest.getBody());
+        this.sampleName = createBody.path("name").asText();
+
+        this.cumulativeWeights = new int[settings.getMix().size()];
+        int totalWeight = 0;
+        for (Map.Entry<String, Integer> entry : settings.getMix().entrySet()) {
+            PostmanRequest request = collection.find(entry.getKey())
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown request '" + entry.getKey()
+                            + "' in the mix, the collection has: " + collection.getRequests()));
+            totalWeight += entry.getValue();
+            cumulativeWeights[requests.size()] = totalWeight;
+            requests.add(request);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI baseUrl = URI.create(System.getProperty("loadtest.base-url", "http://localhost:8080"));
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties(baseUrl);
+        LoadTestReport report = new BeerApiLoadGenerator(settings, PostmanCollection.read(PostmanCollection.BEER_API)).run();
+        report.print(System.out);
+        report.write(settings.getReportDirectory());
+    }
+
+    public LoadTestReport run() throws Exception {
+        seedBeers();
+        long warmupEnd = System.nanoTime() + settings.getWarmup().toNanos();
+        long end = warmupEnd + settings.getDuration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getConcurrency());
+        try {
+            List<Callable<Map<String, EndpointStats>>> tasks = new ArrayList<>();
+            for (int i = 0; i < settings.getConcurrency(); i++) {
+                tasks.add(() -> work(warmupEnd, end));
+            }
+            Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+            settings.getMix().keySet().forEach(name -> endpoints.put(name, new EndpointStats()));
+            endpoints.putIfAbsent(CREATE_REQUEST, new EndpointStats());
+            for (Future<Map<String, EndpointStats>> result : workers.invokeAll(tasks)) {
+                result.get().forEach((name, stats) -> endpoints.get(name).add(stats));
+            }
+            return new LoadTestReport(endpoints, settings.getDuration());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<String, EndpointStats> work(long warmupEnd, long end) throws Exception {
+        Map<String, EndpointStats> endpoints = new HashMap<>();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            PostmanRequest request = pickRequest();
+            Long idToDelete = null;
+            if ("DELETE".equals(request.getMethod())) {
+                idToDelete = createdIds.poll();
+                if (idToDelete == null) {
+                    // nothing created yet that may be deleted without starving the other requests
+                    request = createRequest;
+                }
+            }
+            boolean measured = now >= warmupEnd;
+            EndpointStats stats = endpoints.computeIfAbsent(request.getName(), name -> new EndpointStats());
+            HttpRequest httpRequest = toHttpRequest(request, idToDelete);
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                if (measured) {
+                    stats.recordFailure();
+                }
+                continue;
+            }
+            if (measured) {
+                stats.record(System.nanoTime() - start, response.statusCode());
+            }
+            if (request == createRequest && response.statusCode() == 201) {
+                createdIds.add(objectMapper.readTree(response.body()).path("id").asLong());
+            }
+        }
+        return endpoints;
+    }
+
+    private PostmanRequest pickRequest() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return requests.get(i);
+            }
+        }
+        throw new IllegalStateException("Roll " + roll + " outside of the mix weights");
+    }
+
+    private HttpRequest toHttpRequest(PostmanRequest request, Long idToDelete) throws IOException {
+        int seeded = ThreadLocalRandom.current().nextInt(seededIds.size());
+        StringBuilder path = new StringBuilder();
+        for (String segment : request.getPath().split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            path.append('/');
+            if (segment.chars().allMatch(Character::isDigit)) {
+                path.append(idToDelete != null ? idToDelete : seededIds.get(seeded));
+            } else if (segment.equals(sampleName)) {
+                path.append(seededNames.get(seeded));
+            } else {
+                path.append(segment);
+            }
+        }
+        String body = request.getBody();
+        if (request == createRequest) {
+            body = createBody(sampleName + " " + runId + "-" + createdNames.incrementAndGet(), false);
+        }
+        return httpRequest(request.getMethod(), path.toString(), body);
+    }
+
+    private void seedBeers() throws IOException, InterruptedException {
+        for (int i = 0; i < settings.getSeedBeers(); i++) {
+            String name = "Load beer " + runId + "-" + i;
+            HttpResponse<String> response = httpClient.send(
+                    httpRequest(createRequest.getMethod(), createRequest.getPath(), createBody(name, true)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Could not seed beer " + name + ": " + response.statusCode() + " " + response.body());
+            }
+            JsonNode beer = objectMapper.readTree(response.body());
+            seededIds.add(beer.path("id").asLong());
+            seededNames.add(beer.path("name").asText());
+        }
+    }
+
+    /**
+     * The collection's create body with another name and, for seeded beers, room to move the stock both ways.
+     */
+    private String createBody(String name, boolean seeded) throws IOException {
+        ObjectNode body = createBody.deepCopy();
+        body.put("name", name);
+        if (seeded) {
+            body.put("max", SEEDED_MAX);
+            body.put("quantity", SEEDED_QUANTITY);
+        }
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private HttpRequest httpRequest(String method, String path, String body) {
+        URI baseUrl = settings.getBaseUrl();
+        URI uri;
+        try {
+            uri = new URI(baseUrl.getScheme(), baseUrl.getRawAuthority(), path, null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
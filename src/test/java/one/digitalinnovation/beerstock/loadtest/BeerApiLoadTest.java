@@ -0,0 +1,43 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.net.URI;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Replays the Postman collection against the application on a random port. Excluded from the default build, run it
+ * with {@code ./mvnw -P load-test test [-Dloadtest.duration=2m -Dloadtest.concurrency=64 ...]}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BeerApiLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void whenPostmanCollectionIsReplayedUnderLoadThenNoRequestFailsOnTheServer() throws Exception {
+        // given
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties(URI.create("http://localhost:" + port));
+        BeerApiLoadGenerator loadGenerator = new BeerApiLoadGenerator(settings, PostmanCollection.read(PostmanCollection.BEER_API));
+
+        // when
+        LoadTestReport report = loadGenerator.run();
+        report.print(System.out);
+        report.write(settings.getReportDirectory());
+
+        // then
+        assertThat(report.getTotalRequests(), greaterThan(0L));
+        report.getEndpoints().forEach((name, stats) -> {
+            assertThat(name + " server errors", stats.getServerErrors(), equalTo(0L));
+            assertThat(name + " failures", stats.getFailures(), equalTo(0L));
+        });
+    }
+}
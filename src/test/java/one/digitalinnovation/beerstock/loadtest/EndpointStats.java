@@ -0,0 +1,51 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies in microseconds and outcome counts of one endpoint. Each worker fills its own instance; they are merged
+ * once the run is over.
+ */
+@Getter
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private long clientErrors;
+
+    private long serverErrors;
+
+    private long failures;
+
+    void record(long latencyNanos, int statusCode) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (statusCode >= 500) {
+            serverErrors++;
+        } else if (statusCode >= 400) {
+            clientErrors++;
+        }
+    }
+
+    /**
+     * Counts a request that got no response at all (connection refused, timeout).
+     */
+    void recordFailure() {
+        failures++;
+    }
+
+    void add(EndpointStats other) {
+        latencies.add(other.latencies);
+        clientErrors += other.clientErrors;
+        serverErrors += other.serverErrors;
+        failures += other.failures;
+    }
+
+    public long getRequests() {
+        return latencies.getTotalCount();
+    }
+}
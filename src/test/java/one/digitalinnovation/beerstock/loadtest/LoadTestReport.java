@@ -0,0 +1,63 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per endpoint over the measured part of a run.
+ */
+@Getter
+@AllArgsConstructor
+public class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, EndpointStats> endpoints;
+
+    private final Duration measured;
+
+    public long getTotalRequests() {
+        return endpoints.values().stream().mapToLong(EndpointStats::getRequests).sum();
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-24s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "4xx", "5xx", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((name, stats) -> {
+            Histogram latencies = stats.getLatencies();
+            out.printf(Locale.ROOT, "%-24s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name,
+                    stats.getRequests(),
+                    stats.getClientErrors(),
+                    stats.getServerErrors() + stats.getFailures(),
+                    stats.getRequests() / (measured.toMillis() / 1000.0),
+                    latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    latencies.getValueAtPercentile(95) / MICROS_PER_MILLI,
+                    latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                    latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    latencies.getMaxValue() / MICROS_PER_MILLI);
+        });
+    }
+
+    /**
+     * Writes one HdrHistogram percentile distribution per endpoint, in milliseconds, as {@code <endpoint>.hgrm}.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, EndpointStats> endpoint : endpoints.entrySet()) {
+            String fileName = endpoint.getKey().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                endpoint.getValue().getLatencies().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+}
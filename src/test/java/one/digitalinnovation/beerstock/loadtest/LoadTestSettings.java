@@ -0,0 +1,73 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties:
+ *
+ * <ul>
+ *     <li>{@code loadtest.concurrency}: number of workers, each sending one request at a time (default 16)</li>
+ *     <li>{@code loadtest.warmup} and {@code loadtest.duration}: e.g. {@code 10s}, {@code 2m} (defaults 5s and 30s)</li>
+ *     <li>{@code loadtest.mix}: relative weight per collection request, e.g.
+ *     {@code Get beer by name:60,Increment beer stock:20}; requests left out are not sent</li>
+ *     <li>{@code loadtest.seed-beers}: beers created before the run for reads and stock changes to target (default 100)</li>
+ *     <li>{@code loadtest.report-directory}: where the HdrHistogram percentile files are written (default target/loadtest)</li>
+ * </ul>
+ */
+@Value
+@Builder(toBuilder = true)
+public class LoadTestSettings {
+
+    public static final String DEFAULT_MIX = "Get beer by name:60,List Beers:5,Create Beer:10,"
+            + "Increment beer stock:10,Decrement beer stock:10,Delete beer by id:5";
+
+    URI baseUrl;
+
+    int concurrency;
+
+    Duration warmup;
+
+    Duration duration;
+
+    Map<String, Integer> mix;
+
+    int seedBeers;
+
+    Path reportDirectory;
+
+    public static LoadTestSettings fromSystemProperties(URI baseUrl) {
+        return LoadTestSettings.builder()
+                .baseUrl(baseUrl)
+                .concurrency(Integer.getInteger("loadtest.concurrency", 16))
+                .warmup(DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "5s")))
+                .duration(DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s")))
+                .mix(parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)))
+                .seedBeers(Integer.getInteger("loadtest.seed-beers", 100))
+                .reportDirectory(Paths.get(System.getProperty("loadtest.report-directory", "target/loadtest")))
+                .build();
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Mix entries must look like <request name>:<weight>, got: " + entry);
+            }
+            int weight = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (weight > 0) {
+                weights.put(entry.substring(0, separator).trim(), weight);
+            }
+        }
+        return weights;
+    }
+}
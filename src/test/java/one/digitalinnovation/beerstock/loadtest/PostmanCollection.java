@@ -0,0 +1,61 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the requests of a Postman v2 collection, flattening folders.
+ */
+public class PostmanCollection {
+
+    public static final Path BEER_API = Paths.get("postman", "Beer API.postman_collection.json");
+
+    @Getter
+    private final List<PostmanRequest> requests;
+
+    private PostmanCollection(List<PostmanRequest> requests) {
+        this.requests = Collections.unmodifiableList(requests);
+    }
+
+    public static PostmanCollection read(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        List<PostmanRequest> requests = new ArrayList<>();
+        collect(root.path("item"), requests);
+        return new PostmanCollection(requests);
+    }
+
+    public Optional<PostmanRequest> find(String name) {
+        return requests.stream()
+                .filter(request -> request.getName().equals(name))
+                .findFirst();
+    }
+
+    private static void collect(JsonNode items, List<PostmanRequest> requests) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.get("item"), requests);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            JsonNode url = request.path("url");
+            String rawUrl = url.isTextual() ? url.asText() : url.path("raw").asText();
+            String path = URI.create(rawUrl.replace(" ", "%20")).getPath();
+            JsonNode body = request.path("body").path("raw");
+            requests.add(new PostmanRequest(
+                    item.path("name").asText(),
+                    request.path("method").asText("GET"),
+                    path,
+                    body.isMissingNode() ? null : body.asText()));
+        }
+    }
+}
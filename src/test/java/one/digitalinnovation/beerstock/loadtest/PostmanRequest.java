@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import lombok.Value;
+
+/**
+ * One request of a Postman collection, reduced to what the load generator replays: the URL is kept as a path only, so
+ * the request can be sent to any base URL.
+ */
+@Value
+public class PostmanRequest {
+
+    String name;
+
+    String method;
+
+    String path;
+
+    /**
+     * Raw request body, or {@code null} when the request has none.
+     */
+    String body;
+}
@@ -0,0 +1,140 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Replays the Postman collection at growing concurrency levels, first with requests on the Tomcat worker pool, then on
+ * virtual threads, and prints for both the p99 of each level and the highest concurrency sustained without failed
+ * requests and under the p99 target. Each level runs for {@code loadtest.duration} after {@code loadtest.warmup}.
+ *
+ * <p>Needs the Java 21 build. Run it with {@code ./mvnw -P load-test test -Dtest=VirtualThreadLoadTest
+ * [-Dloadtest.concurrency-levels=50,100,200,400,800,1600 -Dloadtest.p99-target=500ms -Dloadtest.duration=20s]}.</p>
+ */
+@Tag("load")
+public class VirtualThreadLoadTest {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final int MAX_CONNECTIONS = 10_000;
+
+    @Test
+    void whenConcurrencyGrowsThenPlatformAndVirtualThreadsAreComparedOnSustainedConcurrencyAndP99() throws Exception {
+        // given
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need the Java 21 build");
+        List<Integer> levels = Arrays.stream(System.getProperty("loadtest.concurrency-levels", "50,100,200,400,800,1600")
+                .split(","))
+                .map(level -> Integer.parseInt(level.trim()))
+                .collect(Collectors.toList());
+        Duration p99Target = DurationStyle.detectAndParse(System.getProperty("loadtest.p99-target", "500ms"));
+
+        // when
+        Map<String, List<LevelResult>> results = new LinkedHashMap<>();
+        results.put("platform", ramp(false, levels, p99Target));
+        results.put("virtual", ramp(true, levels, p99Target));
+
+        // then
+        System.out.printf(Locale.ROOT, "%-9s %11s %9s %9s %9s %9s%n",
+                "threads", "concurrency", "req/s", "p99 ms", "failed", "sustained");
+        results.forEach((mode, levelResults) -> levelResults.forEach(result ->
+                System.out.printf(Locale.ROOT, "%-9s %11d %9.1f %9.2f %9d %9s%n",
+                        mode, result.concurrency, result.throughput, result.p99Millis, result.failed, result.sustained)));
+        results.forEach((mode, levelResults) -> {
+            int maxSustained = levelResults.stream()
+                    .filter(result -> result.sustained)
+                    .mapToInt(result -> result.concurrency)
+                    .max()
+                    .orElse(0);
+            System.out.printf(Locale.ROOT, "max sustained concurrency with %s threads: %d%n", mode, maxSustained);
+            assertThat(mode + " threads sustained no level at all", maxSustained, greaterThan(0));
+        });
+    }
+
+    /**
+     * Runs the levels in order against a fresh application, stopping at the first one that is not sustained.
+     */
+    private List<LevelResult> ramp(boolean virtualThreads, List<Integer> levels, Duration p99Target) throws Exception {
+        List<LevelResult> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            assertThat("beerstock.threads.virtual=" + virtualThreads + " was not applied",
+                    context.containsBean("virtualThreadExecutor") == virtualThreads);
+            URI baseUrl = URI.create("http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port"));
+            LoadTestSettings settings = LoadTestSettings.fromSystemProperties(baseUrl);
+            for (int concurrency : levels) {
+                LoadTestSettings levelSettings = settings.toBuilder()
+                        .concurrency(concurrency)
+                        .build();
+                LoadTestReport report = new BeerApiLoadGenerator(levelSettings, PostmanCollection.read(PostmanCollection.BEER_API))
+                        .run();
+                LevelResult result = LevelResult.of(concurrency, report, p99Target);
+                results.add(result);
+                if (!result.sustained) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(BeerstockApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.max-connections=" + MAX_CONNECTIONS,
+                        "server.tomcat.accept-count=" + MAX_CONNECTIONS,
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "beerstock.threads.virtual=" + virtualThreads,
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static class LevelResult {
+
+        private final int concurrency;
+        private final double throughput;
+        private final double p99Millis;
+        private final long failed;
+        private final boolean sustained;
+
+        private LevelResult(int concurrency, double throughput, double p99Millis, long failed, boolean sustained) {
+            this.concurrency = concurrency;
+            this.throughput = throughput;
+            this.p99Millis = p99Millis;
+            this.failed = failed;
+            this.sustained = sustained;
+        }
+
+        static LevelResult of(int concurrency, LoadTestReport report, Duration p99Target) {
+            Histogram latencies = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+            long failed = 0;
+            for (EndpointStats stats : report.getEndpoints().values()) {
+                latencies.add(stats.getLatencies());
+                failed += stats.getServerErrors() + stats.getFailures();
+            }
+            double p99Millis = latencies.getValueAtPercentile(99) / MICROS_PER_MILLI;
+            boolean sustained = failed == 0 && p99Millis <= p99Target.toMillis();
+            return new LevelResult(concurrency, report.getTotalRequests() / (report.getMeasured().toMillis() / 1000.0),
+                    p99Millis, failed, sustained);
+        }
+    }
+}
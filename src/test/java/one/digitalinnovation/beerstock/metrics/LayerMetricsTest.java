@@ -0,0 +1,82 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.MetricsConfig;
+import one.digitalinnovation.beerstock.controller.BeerController;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.mapper.TimedBeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class LayerMetricsTest {
+
+    @Autowired
+    private BeerController beerController;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenBeerIsCreatedThenEveryLayerIsTimed() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Metrics Lager").build().toBeerDTO();
+
+        // when
+        beerController.createBeer(beerDTO).get();
+
+        // then
+        assertThat(meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tags("method", "createBeer", "exception", "none")
+                .timer().count(), greaterThanOrEqualTo(1L));
+        assertThat(meterRegistry.get(LayerMetricsAspect.REPOSITORY_TIMER)
+                .tags("repository", "BeerRepository", "method", "save")
+                .timer().count(), greaterThanOrEqualTo(1L));
+        assertThat(meterRegistry.get(TimedBeerMapper.TIMER_NAME)
+                .tags("method", "toModel")
+                .timer().count(), greaterThanOrEqualTo(1L));
+    }
+
+    @Test
+    void whenUnknownBeerIsSearchedThenTheExceptionIsCounted() {
+        // given
+        double countBefore = exceptionCount(BeerNotFoundException.class);
+
+        // when
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> beerController.findByName("Unknown metrics beer").get());
+
+        // then
+        assertThat(failure.getCause(), instanceOf(BeerNotFoundException.class));
+        assertThat(exceptionCount(BeerNotFoundException.class), equalTo(countBefore + 1));
+        assertThat(meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tags("method", "findByName", "exception", "BeerNotFoundException")
+                .timer(), notNullValue());
+    }
+
+    private double exceptionCount(Class<? extends Exception> type) {
+        return meterRegistry.counter(LayerMetricsAspect.EXCEPTION_COUNTER, "exception", type.getSimpleName()).count();
+    }
+}
@@ -0,0 +1,31 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class TimedValidatorTest {
+
+    @Test
+    void whenBeanIsValidatedThenValidationIsTimedAndViolationsAreReturned() {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TimedValidator validator = new TimedValidator(Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry);
+        BeerDTO invalidBeerDTO = BeerDTOBuilder.builder().max(1000).build().toBeerDTO();
+
+        // when
+        Set<ConstraintViolation<BeerDTO>> violations = validator.validate(invalidBeerDTO);
+
+        // then
+        assertThat(violations.size(), equalTo(1));
+        assertThat(meterRegistry.get(TimedValidator.TIMER_NAME).tag("target", "BeerDTO").timer().count(), equalTo(1L));
+    }
+}
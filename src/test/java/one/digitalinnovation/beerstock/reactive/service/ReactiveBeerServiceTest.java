@@ -0,0 +1,216 @@
+package one.digitalinnovation.beerstock.reactive.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.reactive.repository.ReactiveBeerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveBeerServiceTest {
+
+    private static final long INVALID_BEER_ID = 1L;
+
+    @Mock
+    private ReactiveBeerRepository beerRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @InjectMocks
+    private ReactiveBeerService beerService;
+
+    @Test
+    void whenBeerInformedThenItShouldBeCreated() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedSavedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(beerRepository.findByNormalizedName("brahma")).thenReturn(Mono.empty());
+        when(beerRepository.insert(Mockito.any(Beer.class))).thenReturn(Mono.just(expectedSavedBeer));
+
+        // then
+        StepVerifier.create(beerService.createBeer(expectedBeerDTO))
+                .assertNext(createdBeerDTO -> {
+                    assertThat(createdBeerDTO.getId(), equalTo(expectedBeerDTO.getId()));
+                    assertThat(createdBeerDTO.getName(), equalTo(expectedBeerDTO.getName()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenAlreadyRegisteredBeerInformedThenAnErrorShouldBeEmitted() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer duplicatedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(beerRepository.findByNormalizedName("brahma")).thenReturn(Mono.just(duplicatedBeer));
+
+        // then
+        StepVerifier.create(beerService.createBeer(expectedBeerDTO))
+                .verifyError(BeerAlreadyRegisteredException.class);
+        verify(beerRepository, never()).insert(Mockito.any(Beer.class));
+    }
+
+    @Test
+    void whenConcurrentRegistrationViolatesUniqueNameThenAnErrorShouldBeEmitted() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findByNormalizedName("brahma")).thenReturn(Mono.empty());
+        when(beerRepository.insert(Mockito.any(Beer.class)))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate name")));
+
+        // then
+        StepVerifier.create(beerService.createBeer(expectedBeerDTO))
+                .verifyError(BeerAlreadyRegisteredException.class);
+    }
+
+    @Test
+    void whenNotRegisteredBeerNameIsGivenThenAnErrorShouldBeEmitted() {
+        // given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findByNormalizedName("brahma")).thenReturn(Mono.empty());
+
+        // then
+        StepVerifier.create(beerService.findByName(expectedFoundBeerDTO.getName()))
+                .verifyError(BeerNotFoundException.class);
+    }
+
+    @Test
+    void whenListingAfterACursorThenOneExtraRowTellsThereIsANextPage() {
+        // given
+        Beer first = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO());
+        Beer second = beerMapper.toModel(BeerDTOBuilder.builder().id(3L).name("Bohemia").build().toBeerDTO());
+
+        // when
+        when(beerRepository.findByIdGreaterThan(1L, 2)).thenReturn(Flux.just(first, second));
+
+        // then
+        StepVerifier.create(beerService.listAfter(1L, 1))
+                .assertNext(page -> {
+                    assertThat(page.getBeers().size(), equalTo(1));
+                    assertThat(page.getNextCursor(), equalTo(2L));
+                    assertThat(page.getPage(), nullValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenListingAllThenBeersAreStreamedInRepositoryOrder() {
+        // given
+        Beer first = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).name("Skol").build().toBeerDTO());
+        Beer second = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Bohemia").build().toBeerDTO());
+
+        // when
+        when(beerRepository.findAll()).thenReturn(Flux.just(first, second));
+
+        // then
+        StepVerifier.create(beerService.listAll().map(BeerDTO::getName).collectList())
+                .assertNext(names -> assertThat(names, contains("Skol", "Bohemia")))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenDeleteIsCalledWithInvalidIdThenAnErrorShouldBeEmitted() {
+        // when
+        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Mono.empty());
+
+        // then
+        StepVerifier.create(beerService.deleteById(INVALID_BEER_ID))
+                .verifyError(BeerNotFoundException.class);
+        verify(beerRepository, never()).deleteById(INVALID_BEER_ID);
+    }
+
+    @Test
+    void whenIncrementIsCalledThenTheUpdatedBeerShouldBeEmitted() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer incrementedBeer = beerMapper.toModel(expectedBeerDTO);
+        incrementedBeer.setQuantity(expectedBeerDTO.getQuantity() + 10);
+
+        // when
+        when(transactionalOperator.transactional(Mockito.<Mono<Beer>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), 10)).thenReturn(Mono.just(1));
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Mono.just(incrementedBeer));
+
+        // then
+        StepVerifier.create(beerService.increment(expectedBeerDTO.getId(), 10))
+                .assertNext(incrementedBeerDTO -> assertThat(incrementedBeerDTO.getQuantity(), equalTo(20)))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThenAnErrorShouldBeEmitted() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(transactionalOperator.transactional(Mockito.<Mono<Beer>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), 80)).thenReturn(Mono.just(0));
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Mono.just(expectedBeer));
+
+        // then
+        StepVerifier.create(beerService.increment(expectedBeerDTO.getId(), 80))
+                .verifyError(BeerStockExceededException.class);
+    }
+
+    @Test
+    void whenIncrementIsCalledWithInvalidIdThenAnErrorShouldBeEmitted() {
+        // when
+        when(transactionalOperator.transactional(Mockito.<Mono<Beer>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(beerRepository.incrementQuantity(INVALID_BEER_ID, 10)).thenReturn(Mono.just(0));
+        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Mono.empty());
+
+        // then
+        StepVerifier.create(beerService.increment(INVALID_BEER_ID, 10))
+                .verifyError(BeerNotFoundException.class);
+    }
+
+    @Test
+    void whenDecrementIsLowerThanZeroThenAnErrorShouldBeEmitted() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(transactionalOperator.transactional(Mockito.<Mono<Beer>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), 80)).thenReturn(Mono.just(0));
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Mono.just(expectedBeer));
+
+        // then
+        StepVerifier.create(beerService.decrement(expectedBeerDTO.getId(), 80))
+                .verifyError(BeerStockInsufficientException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+public class BeerFilterRepositoryTest {
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.saveAll(List.of(
+                beer("Empty Lager", "Ambev", BeerType.LAGER, 0, 50),
+                beer("Half Lager", "Ambev", BeerType.LAGER, 25, 50),
+                beer("Full Lager", "Heineken", BeerType.LAGER, 50, 50),
+                beer("Half Stout", "Ambev", BeerType.STOUT, 10, 20)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenFilteredByTypeAndBrandThenOnlyMatchingBeersAreReturned() {
+        BeerFilterDTO filter = BeerFilterDTO.builder().type(BeerType.LAGER).brand("Ambev").build();
+
+        assertThat(names(beerRepository.findFiltered(filter, null, PageRequest.of(0, 10))),
+                contains("Empty Lager", "Half Lager"));
+    }
+
+    @Test
+    void whenFilteredByQuantityRangeThenOnlyBeersInsideTheRangeAreReturned() {
+        BeerFilterDTO filter = BeerFilterDTO.builder().minQuantity(10).maxQuantity(25).build();
+
+        assertThat(names(beerRepository.findFiltered(filter, null, PageRequest.of(0, 10))),
+                contains("Half Lager", "Half Stout"));
+    }
+
+    @Test
+    void whenFilteredByFillRatioThenQuantityIsComparedToMax() {
+        BeerFilterDTO filter = BeerFilterDTO.builder().minFillRatio(0.5).maxFillRatio(0.5).build();
+
+        assertThat(names(beerRepository.findFiltered(filter, null, PageRequest.of(0, 10))),
+                contains("Half Lager", "Half Stout"));
+    }
+
+    @Test
+    void whenFilteredPagesAreReadByCursorThenEveryMatchingBeerIsReturnedOnce() {
+        BeerFilterDTO filter = BeerFilterDTO.builder().type(BeerType.LAGER).build();
+
+        Slice<Beer> firstSlice = beerRepository.findFiltered(filter, null, PageRequest.of(0, 2));
+        Long cursor = firstSlice.getContent().get(1).getId();
+        Slice<Beer> secondSlice = beerRepository.findFiltered(filter, cursor, PageRequest.of(0, 2));
+
+        assertThat(firstSlice.hasNext(), is(true));
+        assertThat(names(firstSlice), contains("Empty Lager", "Half Lager"));
+        assertThat(secondSlice.hasNext(), is(false));
+        assertThat(names(secondSlice), contains("Full Lager"));
+    }
+
+    private static Beer beer(String name, String brand, BeerType type, int quantity, int max) {
+        Beer beer = new Beer();
+        beer.setName(name);
+        beer.setBrand(brand);
+        beer.setType(type);
+        beer.setQuantity(quantity);
+        beer.setMax(max);
+        return beer;
+    }
+
+    private static List<String> names(Slice<Beer> beers) {
+        return beers.getContent()
+                .stream()
+                .map(Beer::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BeerRepositoryCacheTest {
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Beer beer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        beer = beerRepository.save(BeerMapper.INSTANCE.toModel(beerDTO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenBeerIsFoundByIdTwiceThenSecondLookupIsServedWithoutSql() {
+        // given
+        beerRepository.findById(beer.getId());
+        statistics.clear();
+
+        // when
+        Optional<Beer> foundBeer = beerRepository.findById(beer.getId());
+
+        // then
+        assertThat(foundBeer.orElseThrow().getName(), is(equalTo(beer.getName())));
+        assertThat(statistics.getPrepareStatementCount(), is(equalTo(0L)));
+        assertThat(statistics.getSecondLevelCacheHitCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenBeerIsFoundByNameTwiceThenSecondLookupIsServedWithoutSql() {
+        // given
+        beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName()));
+        statistics.clear();
+
+        // when
+        Optional<Beer> foundBeer = beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName()));
+
+        // then
+        assertThat(foundBeer.orElseThrow().getId(), is(equalTo(beer.getId())));
+        assertThat(statistics.getPrepareStatementCount(), is(equalTo(0L)));
+        assertThat(statistics.getQueryCacheHitCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenStockIsIncrementedThenCachedBeerIsNotServedStale() throws Exception {
+        // given
+        beerRepository.findById(beer.getId());
+        beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName()));
+
+        // when
+        beerService.increment(beer.getId(), 10);
+        statistics.clear();
+
+        // then
+        int expectedQuantity = beer.getQuantity() + 10;
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantity(), is(equalTo(expectedQuantity)));
+        assertThat(beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName())).orElseThrow().getQuantity(), is(equalTo(expectedQuantity)));
+        assertThat(statistics.getPrepareStatementCount(), is(greaterThan(0L)));
+    }
+
+    @Test
+    void whenStockIsDecrementedThenCachedBeerIsNotServedStale() throws Exception {
+        // given
+        beerRepository.findById(beer.getId());
+        beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName()));
+
+        // when
+        beerService.decrement(beer.getId(), 5);
+        statistics.clear();
+
+        // then
+        int expectedQuantity = beer.getQuantity() - 5;
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantity(), is(equalTo(expectedQuantity)));
+        assertThat(beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName())).orElseThrow().getQuantity(), is(equalTo(expectedQuantity)));
+        assertThat(statistics.getPrepareStatementCount(), is(greaterThan(0L)));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItIsNoLongerFoundThroughTheCache() throws Exception {
+        // given
+        beerRepository.findById(beer.getId());
+        beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName()));
+
+        // when
+        beerService.deleteById(beer.getId());
+
+        // then
+        assertThat(beerRepository.findById(beer.getId()).isPresent(), is(false));
+        assertThat(beerRepository.findByNormalizedName(Beer.normalizeName(beer.getName())).isPresent(), is(false));
+    }
+}
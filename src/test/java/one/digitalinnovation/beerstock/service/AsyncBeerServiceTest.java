@@ -0,0 +1,176 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.BulkheadProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BulkheadFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncBeerServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Mock
+    private BeerService beerService;
+
+    @Mock
+    private BeerReservationService beerReservationService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AsyncBeerService asyncBeerService;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getRead().setThreads(1);
+        properties.getRead().setQueueCapacity(1);
+        properties.getWrite().setThreads(1);
+        properties.getWrite().setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        asyncBeerService = new AsyncBeerService(beerService, beerReservationService, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncBeerService.close();
+    }
+
+    @Test
+    void whenBeerIsFoundThenFutureCompletesWithIt() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerService.findByName(expectedBeerDTO.getName())).thenReturn(expectedBeerDTO);
+
+        // then
+        BeerDTO foundBeerDTO = asyncBeerService.findByName(expectedBeerDTO.getName()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(foundBeerDTO, is(equalTo(expectedBeerDTO)));
+    }
+
+    @Test
+    void whenServiceThrowsThenFutureFailsWithTheSameException() throws Exception {
+        // given
+        BeerNotFoundException notFound = new BeerNotFoundException("unregistered");
+
+        // when
+        when(beerService.findByName("unregistered")).thenThrow(notFound);
+
+        // then
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> asyncBeerService.findByName("unregistered").get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertThat(failure.getCause(), is(notFound));
+    }
+
+    @Test
+    void whenServiceThrowsAnErrorThenFutureFailsInsteadOfHanging() throws Exception {
+        // given
+        StackOverflowError error = new StackOverflowError();
+
+        // when
+        when(beerService.findByName("recursive")).thenThrow(error);
+
+        // then
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> asyncBeerService.findByName("recursive").get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertThat(failure.getCause(), is(error));
+    }
+
+    @Test
+    void whenReadBulkheadIsFullThenReadsAreRejectedAndWritesStillRun() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch releaseRead = new CountDownLatch(1);
+        when(beerService.listAll()).thenAnswer(invocation -> {
+            readStarted.countDown();
+            releaseRead.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return List.of(beerDTO);
+        });
+        when(beerService.decrement(beerDTO.getId(), 1)).thenReturn(beerDTO);
+
+        // when
+        CompletableFuture<List<BeerDTO>> running = asyncBeerService.listAll();
+        readStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        CompletableFuture<List<BeerDTO>> queued = asyncBeerService.listAll();
+        CompletableFuture<BeerDTO> rejected = asyncBeerService.findByName(beerDTO.getName());
+        BeerDTO decremented = asyncBeerService.decrement(beerDTO.getId(), 1).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        releaseRead.countDown();
+
+        // then
+        ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+        assertThat(failure.getCause(), instanceOf(BulkheadFullException.class));
+        assertThat(decremented, is(equalTo(beerDTO)));
+        assertThat(running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), equalTo(List.of(beerDTO)));
+        assertThat(queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), equalTo(List.of(beerDTO)));
+        assertThat(meterRegistry.counter("beerstock.bulkhead.rejected", "bulkhead", AsyncBeerService.READ_BULKHEAD).count(), equalTo(1.0));
+        verify(beerService, never()).findByName(beerDTO.getName());
+    }
+
+    @Test
+    void whenCallsRunOnAThreadPerTaskExecutorThenConcurrencyIsCappedByMaxConcurrentCallsNotThreads() throws Exception {
+        // given
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getRead().setThreads(1);
+        properties.getRead().setQueueCapacity(0);
+        properties.getRead().setMaxConcurrentCalls(3);
+        ExecutorService threadPerTask = Executors.newCachedThreadPool();
+        AsyncBeerService unpooledService = new AsyncBeerService(beerService, beerReservationService, properties, meterRegistry, Optional.of(threadPerTask));
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        CountDownLatch allRunning = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        when(beerService.findByName(beerDTO.getName())).thenAnswer(invocation -> {
+            allRunning.countDown();
+            release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return beerDTO;
+        });
+
+        try {
+            // when
+            List<CompletableFuture<BeerDTO>> running = List.of(
+                    unpooledService.findByName(beerDTO.getName()),
+                    unpooledService.findByName(beerDTO.getName()),
+                    unpooledService.findByName(beerDTO.getName()));
+            boolean ranConcurrently = allRunning.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            CompletableFuture<BeerDTO> rejected = unpooledService.findByName(beerDTO.getName());
+            release.countDown();
+
+            // then
+            assertThat(ranConcurrently, is(true));
+            ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+            assertThat(failure.getCause(), instanceOf(BulkheadFullException.class));
+            for (CompletableFuture<BeerDTO> call : running) {
+                assertThat(call.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), equalTo(beerDTO));
+            }
+        } finally {
+            threadPerTask.shutdownNow();
+        }
+    }
+}
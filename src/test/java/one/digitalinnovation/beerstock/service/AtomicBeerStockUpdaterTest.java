@@ -0,0 +1,136 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AtomicBeerStockUpdaterTest {
+
+    private static final long INVALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @InjectMocks
+    private AtomicBeerStockUpdater beerStockUpdater;
+
+    @Test
+    void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToIncrement = 10;
+        int expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantityAfterIncrement);
+
+        // when
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(1);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+        Beer incrementedBeer = beerStockUpdater.increment(expectedBeerDTO.getId(), quantityToIncrement);
+
+        assertThat(incrementedBeer.getQuantity(), equalTo(expectedQuantityAfterIncrement));
+        assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDTO.getMax()));
+    }
+
+    @Test
+    void whenIncrementAfterSumIsGreatherThanMaxThenThrowException() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToIncrement = expectedBeerDTO.getMax() - expectedBeer.getQuantity() + 1;
+
+        // when
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+        assertThrows(BeerStockExceededException.class, () -> beerStockUpdater.increment(expectedBeerDTO.getId(), quantityToIncrement));
+    }
+
+    @Test
+    void whenIncrementIsCalledWithInvalidIdThenThrowException() {
+        // given
+        int quantityToIncrement = 10;
+
+        // when
+        when(beerRepository.incrementQuantity(INVALID_BEER_ID, quantityToIncrement)).thenReturn(0);
+        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> beerStockUpdater.increment(INVALID_BEER_ID, quantityToIncrement));
+    }
+
+    @Test
+    void whenDecrementIsCalledThenDecrementBeerStock() throws BeerNotFoundException, BeerStockInsufficientException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = 10;
+        int quantityAfterDecrement = expectedBeerDTO.getQuantity() - quantityToDecrement;
+        expectedBeer.setQuantity(quantityAfterDecrement);
+
+        // when
+        when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(1);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+        Beer decrementedBeer = beerStockUpdater.decrement(expectedBeerDTO.getId(), quantityToDecrement);
+
+        assertThat(decrementedBeer.getQuantity(), equalTo(quantityAfterDecrement));
+    }
+
+    @Test
+    void whenDecrementQuantityIsGreaterThanQuantityThenThrowException() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = expectedBeer.getQuantity() + 1;
+
+        // when
+        when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(0);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+        assertThrows(BeerStockInsufficientException.class, () -> beerStockUpdater.decrement(expectedBeerDTO.getId(), quantityToDecrement));
+        verify(beerRepository, never()).save(any());
+    }
+
+    @Test
+    void whenDecrementIsCalledWithInvalidIdThenThrowException() {
+        // given
+        int quantityToDecrement = 10;
+
+        // when
+        when(beerRepository.decrementQuantity(INVALID_BEER_ID, quantityToDecrement)).thenReturn(0);
+        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> beerStockUpdater.decrement(INVALID_BEER_ID, quantityToDecrement));
+    }
+}
@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Exports a one million row catalog. Runs in the {@code capped-heap-tests} Surefire execution with a heap far smaller
+ * than the materialized catalog would need, so it only passes if the export really streams. The database is file
+ * based so that the rows themselves do not live on the heap.
+ */
+@Tag("capped-heap")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/catalog-export;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class BeerCatalogExporterTest {
+
+    private static final int CATALOG_SIZE = 1_000_000;
+
+    @Autowired
+    private BeerCatalogExporter beerCatalogExporter;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into beer (id, name, normalized_name, brand, max, quantity, type, version) "
+                + "select x, 'Beer ' || x, lower('Beer ' || x), 'Brand ' || mod(x, 100), 100, mod(x, 100), 'LAGER', 0 "
+                + "from system_range(1, " + CATALOG_SIZE + ")");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from beer");
+    }
+
+    @Test
+    void whenWholeCatalogIsExportedThenEveryBeerIsWrittenAsOneLine() throws IOException {
+        // given
+        LineCountingOutputStream outputStream = new LineCountingOutputStream();
+
+        // when
+        long exported = beerCatalogExporter.exportAll(outputStream);
+
+        // then
+        assertThat(exported, equalTo((long) CATALOG_SIZE));
+        assertThat(outputStream.lines, equalTo((long) CATALOG_SIZE));
+        assertThat(beerRepository.count(), equalTo((long) CATALOG_SIZE));
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.config.BeerNameFilterProperties;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerNameFilterTest {
+
+    private static final int EXPECTED_NAMES = 10_000;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BeerNameFilter beerNameFilter;
+
+    @BeforeEach
+    void setUp() {
+        BeerNameFilterProperties properties = new BeerNameFilterProperties();
+        properties.setExpectedNames(EXPECTED_NAMES);
+        properties.setFalsePositiveProbability(0.01);
+        beerNameFilter = new BeerNameFilter(beerRepository, transactionManager, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenFilterIsLoadedThenRegisteredNamesMightBeContained() {
+        // given
+        when(beerRepository.streamAllNormalizedNames()).thenReturn(Stream.of("Brahma", "Skol"));
+
+        // when
+        beerNameFilter.load();
+
+        // then
+        assertThat(beerNameFilter.mightContain("Brahma"), is(true));
+        assertThat(beerNameFilter.mightContain("Skol"), is(true));
+    }
+
+    @Test
+    void whenNameIsRemovedThenItIsNoLongerContained() {
+        // given
+        when(beerRepository.streamAllNormalizedNames()).thenReturn(Stream.of("Brahma"));
+        beerNameFilter.load();
+
+        // when
+        beerNameFilter.put("Skol");
+        beerNameFilter.remove("Skol");
+
+        // then
+        assertThat(beerNameFilter.mightContain("Skol"), is(false));
+        assertThat(beerNameFilter.mightContain("Brahma"), is(true));
+    }
+
+    @Test
+    void whenFilterIsNotLoadedYetThenEveryNameMightBeContained() {
+        assertThat(beerNameFilter.mightContain("Brahma"), is(true));
+    }
+
+    @Test
+    void whenFilterIsFullThenFalsePositiveRateStaysNearTheConfiguredProbability() {
+        // given
+        when(beerRepository.streamAllNormalizedNames()).thenReturn(Stream.empty());
+        beerNameFilter.load();
+        for (int i = 0; i < EXPECTED_NAMES; i++) {
+            beerNameFilter.put("Registered beer " + i);
+        }
+
+        // when
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (beerNameFilter.mightContain("New beer " + i)) {
+                beerNameFilter.recordFalsePositive();
+            }
+        }
+
+        // then
+        assertThat(beerNameFilter.falsePositiveRate(), is(greaterThan(0.0)));
+        assertThat(beerNameFilter.falsePositiveRate(), is(lessThan(0.02)));
+    }
+
+    @Test
+    void whenNoNameWasCheckedThenFalsePositiveRateIsZero() {
+        assertThat(beerNameFilter.falsePositiveRate(), is(equalTo(0.0)));
+    }
+}
@@ -0,0 +1,121 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerPrefixIndexTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BeerPrefixIndex beerPrefixIndex;
+
+    @BeforeEach
+    void setUp() {
+        beerPrefixIndex = new BeerPrefixIndex(beerRepository, transactionManager);
+    }
+
+    @Test
+    void whenIndexIsLoadedThenNamesAndBrandsAreCompletedIgnoringCase() {
+        // given
+        when(beerRepository.streamAll()).thenReturn(Stream.of(
+                beer(1L, "Brahma", "Ambev"),
+                beer(2L, "Bohemia", "Ambev"),
+                beer(3L, "Amstel", "Heineken")));
+
+        // when
+        beerPrefixIndex.load();
+
+        // then
+        assertThat(names(beerPrefixIndex.complete("B", 10)), contains("Bohemia", "Brahma"));
+        assertThat(names(beerPrefixIndex.complete("am", 10)), contains("Brahma", "Bohemia", "Amstel"));
+        assertThat(names(beerPrefixIndex.complete("HEINEKEN", 10)), contains("Amstel"));
+    }
+
+    @Test
+    void whenNameAndBrandBothMatchThenBeerIsSuggestedOnce() {
+        // given
+        beerPrefixIndex.put(beer(1L, "Stella Artois", "Stella"));
+
+        // when
+        List<BeerSuggestionDTO> suggestions = beerPrefixIndex.complete("stella", 10);
+
+        // then
+        assertThat(suggestions, hasSize(1));
+    }
+
+    @Test
+    void whenMoreBeersMatchThanTheLimitThenOnlyTheFirstOnesAreReturned() {
+        // given
+        for (long id = 1; id <= 20; id++) {
+            beerPrefixIndex.put(beer(id, "Lager " + id, "Brand " + id));
+        }
+
+        // when
+        List<BeerSuggestionDTO> suggestions = beerPrefixIndex.complete("lager", 5);
+
+        // then
+        assertThat(suggestions, hasSize(5));
+    }
+
+    @Test
+    void whenBeerIsRemovedThenItIsNoLongerSuggested() {
+        // given
+        Beer beer = beer(1L, "Brahma", "Ambev");
+        beerPrefixIndex.put(beer);
+
+        // when
+        beerPrefixIndex.remove(beer);
+
+        // then
+        assertThat(beerPrefixIndex.complete("bra", 10), is(empty()));
+        assertThat(beerPrefixIndex.size(), is(0));
+    }
+
+    @Test
+    void whenPrefixIsBlankThenNothingIsSuggested() {
+        beerPrefixIndex.put(beer(1L, "Brahma", "Ambev"));
+
+        assertThat(beerPrefixIndex.complete("  ", 10), is(empty()));
+    }
+
+    private static Beer beer(Long id, String name, String brand) {
+        Beer beer = new Beer();
+        beer.setId(id);
+        beer.setName(name);
+        beer.setBrand(brand);
+        beer.setMax(50);
+        beer.setQuantity(10);
+        beer.setType(BeerType.LAGER);
+        return beer;
+    }
+
+    private static List<String> names(List<BeerSuggestionDTO> suggestions) {
+        return suggestions.stream()
+                .map(BeerSuggestionDTO::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,161 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.ReservationProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerReservationServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Mock
+    private BeerService beerService;
+
+    @Mock
+    private BeerStockUpdater beerStockUpdater;
+
+    private final StockHolds stockHolds = new StockHolds();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+    private BeerReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        ReservationProperties properties = new ReservationProperties();
+        properties.setDefaultTtl(Duration.ofMillis(50));
+        properties.setTick(Duration.ofMillis(10));
+        properties.setWheelSize(64);
+        reservationService = new BeerReservationService(beerService, beerStockUpdater, stockHolds, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationService.stop();
+    }
+
+    @Test
+    void whenUnitsAreHeldThenOtherReservationsOnlySeeTheRest() throws Exception {
+        // when
+        when(beerStockUpdater.currentQuantity(beerDTO.getId())).thenReturn(beerDTO.getQuantity());
+        ReservationDTO reservation = reservationService.hold(beerDTO.getId(), request(7, 60L));
+
+        // then
+        assertThat(reservation.getAvailable(), equalTo(3));
+        assertThat(stockHolds.heldFor(beerDTO.getId()), equalTo(7));
+        assertThat(reservation.getExpiresAt(), lessThanOrEqualTo(Instant.now().plusSeconds(60)));
+        assertThrows(BeerStockInsufficientException.class, () -> reservationService.hold(beerDTO.getId(), request(4, 60L)));
+        assertThat(stockHolds.heldFor(beerDTO.getId()), equalTo(7));
+    }
+
+    @Test
+    void whenReservationIsCommittedThenHeldUnitsAreDecrementedOnce() throws Exception {
+        // given
+        BeerDTO decrementedBeerDTO = BeerDTOBuilder.builder().quantity(6).build().toBeerDTO();
+        when(beerStockUpdater.currentQuantity(beerDTO.getId())).thenReturn(beerDTO.getQuantity());
+        ReservationDTO reservation = reservationService.hold(beerDTO.getId(), request(4, 60L));
+
+        // when
+        when(beerService.decrementHeld(beerDTO.getId(), 4)).thenReturn(decrementedBeerDTO);
+        BeerDTO committedBeerDTO = reservationService.commit(reservation.getId());
+
+        // then
+        assertThat(committedBeerDTO, equalTo(decrementedBeerDTO));
+        assertThat(stockHolds.heldFor(beerDTO.getId()), equalTo(0));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.commit(reservation.getId()));
+    }
+
+    @Test
+    void whenReservationIsReleasedThenUnitsAreFreedWithoutTouchingStock() throws Exception {
+        // given
+        when(beerStockUpdater.currentQuantity(beerDTO.getId())).thenReturn(beerDTO.getQuantity());
+        ReservationDTO reservation = reservationService.hold(beerDTO.getId(), request(10, 60L));
+
+        // when
+        reservationService.release(reservation.getId());
+
+        // then
+        assertThat(stockHolds.heldFor(beerDTO.getId()), equalTo(0));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.commit(reservation.getId()));
+        verify(beerService, never()).decrementHeld(beerDTO.getId(), 10);
+    }
+
+    @Test
+    void whenReservationExpiresThenItsUnitsAreReleased() throws Exception {
+        // given
+        when(beerStockUpdater.currentQuantity(beerDTO.getId())).thenReturn(beerDTO.getQuantity());
+        reservationService.start();
+
+        // when
+        ReservationDTO reservation = reservationService.hold(beerDTO.getId(), request(5, null));
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (expiredCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // then
+        assertThat(stockHolds.heldFor(beerDTO.getId()), equalTo(0));
+        assertThat(expiredCount(), equalTo(1.0));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.commit(reservation.getId()));
+    }
+
+    @Test
+    void whenBeerIsNotRegisteredThenNothingIsHeld() throws Exception {
+        // when
+        when(beerStockUpdater.currentQuantity(beerDTO.getId())).thenThrow(new BeerNotFoundException(beerDTO.getId()));
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> reservationService.hold(beerDTO.getId(), request(1, 60L)));
+        assertThat(stockHolds.heldFor(beerDTO.getId()), equalTo(0));
+    }
+
+    @Test
+    void whenTtlIsLongerThanTheMaxThenItIsCut() throws Exception {
+        // given
+        when(beerStockUpdater.currentQuantity(beerDTO.getId())).thenReturn(beerDTO.getQuantity());
+
+        // when
+        ReservationDTO reservation = reservationService.hold(beerDTO.getId(), request(1, Duration.ofDays(1).toSeconds()));
+
+        // then
+        assertThat(Instant.now().plus(Duration.ofMinutes(30)).plusSeconds(1), greaterThan(reservation.getExpiresAt()));
+    }
+
+    private double expiredCount() {
+        return meterRegistry.counter("beerstock.reservations", "outcome", "expired").count();
+    }
+
+    private static ReservationRequestDTO request(int quantity, Long ttlSeconds) {
+        return ReservationRequestDTO.builder()
+                .quantity(quantity)
+                .ttlSeconds(ttlSeconds)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.CacheConfig;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class BeerServiceCacheTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private BeerRepository beerRepository;
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.BEERS_BY_NAME).clear();
+    }
+
+    @Test
+    void whenSameNameIsSearchedTwiceThenRepositoryIsQueriedOnce() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+        // then
+        beerService.findByName(expectedBeerDTO.getName());
+        BeerDTO cachedBeerDTO = beerService.findByName(expectedBeerDTO.getName());
+
+        assertThat(cachedBeerDTO, equalTo(expectedBeerDTO));
+        verify(beerRepository, times(1)).findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()));
+    }
+
+    @Test
+    void whenStockIsIncrementedThenCachedBeerIsInvalidated() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer incrementedBeer = beerMapper.toModel(expectedBeerDTO);
+        incrementedBeer.setQuantity(expectedBeerDTO.getQuantity() + 10);
+
+        // when
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName())))
+                .thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)))
+                .thenReturn(Optional.of(incrementedBeer));
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), 10)).thenReturn(1);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(incrementedBeer));
+
+        // then
+        beerService.findByName(expectedBeerDTO.getName());
+        beerService.increment(expectedBeerDTO.getId(), 10);
+        BeerDTO foundBeerDTO = beerService.findByName(expectedBeerDTO.getName());
+
+        assertThat(foundBeerDTO.getQuantity(), equalTo(expectedBeerDTO.getQuantity() + 10));
+        verify(beerRepository, times(2)).findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenCachedBeerIsInvalidated() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(Optional.of(expectedBeer));
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+        beerService.findByName(expectedBeerDTO.getName());
+        beerService.deleteById(expectedBeerDTO.getId());
+        beerService.findByName(expectedBeerDTO.getName());
+
+        verify(beerRepository, times(2)).findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()));
+    }
+}
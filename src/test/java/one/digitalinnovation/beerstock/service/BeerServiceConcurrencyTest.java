@@ -0,0 +1,107 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest
+public class BeerServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int OPERATIONS = 5_000;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenManyIncrementsRunInParallelThenNoIncrementIsLost() throws Exception {
+        // given
+        Beer beer = saveBeer("Concurrency Lager", 0);
+
+        // when
+        List<Callable<Object>> increments = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            increments.add(() -> beerService.increment(beer.getId(), 1));
+        }
+        int succeeded = runInParallel(increments);
+
+        // then
+        assertThat(succeeded, equalTo(OPERATIONS));
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantity(), equalTo(OPERATIONS));
+    }
+
+    @Test
+    void whenMoreDecrementsThanStockRunInParallelThenStockNeverGoesBelowZero() throws Exception {
+        // given
+        int initialStock = OPERATIONS / 2;
+        Beer beer = saveBeer("Concurrency Stout", initialStock);
+
+        // when
+        List<Callable<Object>> decrements = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            decrements.add(() -> beerService.decrement(beer.getId(), 1));
+        }
+        int succeeded = runInParallel(decrements);
+
+        // then
+        assertThat(succeeded, equalTo(initialStock));
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantity(), equalTo(0));
+    }
+
+    private Beer saveBeer(String name, int quantity) {
+        BeerDTO beerDTO = BeerDTOBuilder.builder()
+                .id(null)
+                .name(name)
+                .max(OPERATIONS)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+        return beerRepository.save(BeerMapper.INSTANCE.toModel(beerDTO));
+    }
+
+    private int runInParallel(List<Callable<Object>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            int succeeded = 0;
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof BeerStockInsufficientException)) {
+                        throw new IllegalStateException(e.getCause());
+                    }
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package one.digitalinnovation.beerstock.service;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import one.digitalinnovation.beerstock.dto.BeerBatchResultDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerFilterDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.dto.StockEventDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerBatchItemStatus;
+import one.digitalinnovation.beerstock.enums.StockEventType;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerBatchTooLargeException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
@@ -16,12 +26,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -47,6 +74,28 @@ public class BeerServiceTest {
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private BeerStockUpdater beerStockUpdater;
+
+    @Spy
+    private BeerStockLocks beerStockLocks = new BeerStockLocks(new BeerStockProperties());
+
+    @Spy
+    private StockHolds stockHolds = new StockHolds();
+
+    @Mock
+    private BeerNameFilter beerNameFilter;
+
+    @Mock
+    private BeerPrefixIndex beerPrefixIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
     private BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -59,13 +108,49 @@ public class BeerServiceTest {
         Beer expectedSavedBeer = beerMapper.toModel(expectedBeerDTO);
 
         // when
-        when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Optional.empty());
+        when(beerNameFilter.mightContain(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(true);
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(Optional.empty());
         when(beerRepository.save(expectedSavedBeer)).thenReturn(expectedSavedBeer);
 
         // then
         BeerDTO createdBeerDTO = beerService.createBeer(expectedBeerDTO);
         assertThat(createdBeerDTO.getId(), is(equalTo(expectedBeerDTO.getId())));
         assertThat(createdBeerDTO.getName(), is(equalTo(expectedBeerDTO.getName())));
+        verify(beerNameFilter).recordFalsePositive();
+        verify(beerNameFilter).put(Beer.normalizeName(expectedBeerDTO.getName()));
+    }
+
+    @Test
+    void whenBeerNameIsCertainlyNewThenItShouldBeCreatedWithoutLookup() throws BeerAlreadyRegisteredException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedSavedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(beerNameFilter.mightContain(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(false);
+        when(beerRepository.save(expectedSavedBeer)).thenReturn(expectedSavedBeer);
+
+        // then
+        BeerDTO createdBeerDTO = beerService.createBeer(expectedBeerDTO);
+        assertThat(createdBeerDTO.getName(), is(equalTo(expectedBeerDTO.getName())));
+        verify(beerRepository, never()).findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()));
+        verify(beerNameFilter).put(Beer.normalizeName(expectedBeerDTO.getName()));
+        verify(beerPrefixIndex).put(expectedSavedBeer);
+    }
+
+    @Test
+    void whenUniqueConstraintRejectsTheNameThenAnExceptionShouldBeThrown() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer duplicatedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(beerNameFilter.mightContain(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(false);
+        when(beerRepository.save(duplicatedBeer)).thenThrow(new DataIntegrityViolationException("unique name"));
+
+        // then
+        assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(expectedBeerDTO));
+        verify(beerNameFilter, never()).put(Beer.normalizeName(expectedBeerDTO.getName()));
     }
 
     @Test
@@ -75,12 +160,97 @@ public class BeerServiceTest {
         Beer duplicatedBeer = beerMapper.toModel(expectedBeerDTO);
 
         // when
-        when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Optional.of(duplicatedBeer));
+        when(beerNameFilter.mightContain(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(true);
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedBeerDTO.getName()))).thenReturn(Optional.of(duplicatedBeer));
 
         // then
         assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(expectedBeerDTO));
     }
 
+    @Test
+    void whenBatchIsInformedThenNewBeersAreCreatedAndTheOthersReported() throws Exception {
+        // given
+        BeerDTO newBeerDTO = BeerDTOBuilder.builder().id(null).name("New Lager").build().toBeerDTO();
+        BeerDTO registeredBeerDTO = BeerDTOBuilder.builder().id(null).name("Registered Lager").build().toBeerDTO();
+        BeerDTO repeatedBeerDTO = BeerDTOBuilder.builder().id(null).name("New Lager").build().toBeerDTO();
+        BeerDTO invalidBeerDTO = BeerDTOBuilder.builder().id(null).name("Invalid Lager").max(1000).build().toBeerDTO();
+        Beer savedBeer = beerMapper.toModel(newBeerDTO);
+        savedBeer.setId(1L);
+
+        // when
+        when(beerRepository.findRegisteredNormalizedNames(Set.of("new lager", "registered lager")))
+                .thenReturn(List.of("registered lager"));
+        when(beerRepository.saveAll(List.of(beerMapper.toModel(newBeerDTO)))).thenReturn(List.of(savedBeer));
+
+        // then
+        List<BeerBatchResultDTO> results = beerService.createBeers(List.of(newBeerDTO, registeredBeerDTO, repeatedBeerDTO, invalidBeerDTO));
+
+        assertThat(results.size(), is(equalTo(4)));
+        assertThat(results.get(0).getStatus(), is(equalTo(BeerBatchItemStatus.CREATED)));
+        assertThat(results.get(0).getBeer().getId(), is(equalTo(1L)));
+        assertThat(results.get(1).getStatus(), is(equalTo(BeerBatchItemStatus.DUPLICATE)));
+        assertThat(results.get(2).getStatus(), is(equalTo(BeerBatchItemStatus.DUPLICATE)));
+        assertThat(results.get(3).getStatus(), is(equalTo(BeerBatchItemStatus.INVALID)));
+        assertThat(results.get(3).getErrors(), Matchers.contains("max must be less than or equal to 500"));
+        verify(beerRepository).flush();
+        verify(beerNameFilter).put("new lager");
+    }
+
+    @Test
+    void whenBatchIsCreatedInATransactionThenItIsIndexedOnlyOnceCommitted() throws Exception {
+        // given
+        BeerDTO newBeerDTO = BeerDTOBuilder.builder().id(null).name("New Lager").build().toBeerDTO();
+        Beer savedBeer = beerMapper.toModel(newBeerDTO);
+        savedBeer.setId(1L);
+
+        // when
+        when(beerRepository.findRegisteredNormalizedNames(Set.of("new lager"))).thenReturn(List.of());
+        when(beerRepository.saveAll(List.of(beerMapper.toModel(newBeerDTO)))).thenReturn(List.of(savedBeer));
+
+        // then
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beerService.createBeers(List.of(newBeerDTO));
+            verify(beerPrefixIndex, never()).put(savedBeer);
+            verify(beerNameFilter, never()).put("new lager");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(beerPrefixIndex).put(savedBeer);
+            verify(beerNameFilter).put("new lager");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenBatchInsertConflictsThenOnlyTheConcurrentlyRegisteredNamesAreReported() {
+        // given
+        BeerDTO newBeerDTO = BeerDTOBuilder.builder().id(null).name("New Lager").build().toBeerDTO();
+        BeerDTO racedBeerDTO = BeerDTOBuilder.builder().id(null).name("Raced Lager").build().toBeerDTO();
+
+        // when
+        when(beerRepository.findRegisteredNormalizedNames(Set.of("new lager", "raced lager"))).thenReturn(List.of());
+        when(beerRepository.saveAll(List.of(beerMapper.toModel(newBeerDTO), beerMapper.toModel(racedBeerDTO))))
+                .thenThrow(new DataIntegrityViolationException("unique name"));
+        when(beerRepository.findCommittedNormalizedNames(Set.of("new lager", "raced lager"))).thenReturn(List.of("raced lager"));
+
+        // then
+        BeerAlreadyRegisteredException exception = assertThrows(BeerAlreadyRegisteredException.class,
+                () -> beerService.createBeers(List.of(newBeerDTO, racedBeerDTO)));
+        assertThat(exception.getMessage(), is(equalTo("Beer with name Raced Lager already registered in the system.")));
+        verify(beerNameFilter, never()).put("raced lager");
+    }
+
+    @Test
+    void whenBatchExceedsTheLimitThenAnExceptionShouldBeThrown() {
+        // given
+        List<BeerDTO> beerDTOs = Collections.nCopies(BeerService.MAX_BATCH_SIZE + 1, BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // then
+        assertThrows(BeerBatchTooLargeException.class, () -> beerService.createBeers(beerDTOs));
+        verifyNoInteractions(beerRepository);
+    }
+
     @Test
     void whenValidBeerNameIsGivenThenReturnABeer() throws BeerNotFoundException {
         // given
@@ -88,7 +258,7 @@ public class BeerServiceTest {
         Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
 
         // when
-        when(beerRepository.findByName(expectedFoundBeer.getName())).thenReturn(Optional.of(expectedFoundBeer));
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedFoundBeer.getName()))).thenReturn(Optional.of(expectedFoundBeer));
 
         // then
         BeerDTO foundBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
@@ -96,18 +266,84 @@ public class BeerServiceTest {
         assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
     }
 
+    @Test
+    void whenBeerNameIsGivenWithOtherCasingAndAccentsThenItIsFoundWithOneLookup() throws BeerNotFoundException {
+        // given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().name("Brahma Chopp").build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+        // when
+        when(beerRepository.findByNormalizedName("brahma chopp")).thenReturn(Optional.of(expectedFoundBeer));
+
+        // then
+        BeerDTO foundBeerDTO = beerService.findByName(" BRAHMA CHÓPP ");
+
+        assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
+        verify(beerRepository, times(1)).findByNormalizedName("brahma chopp");
+    }
+
+    @Test
+    void whenNameDiffersFromARegisteredOneOnlyByCaseThenAnExceptionShouldBeThrown() {
+        // given
+        BeerDTO registeredBeerDTO = BeerDTOBuilder.builder().name("Brahma").build().toBeerDTO();
+        BeerDTO newBeerDTO = BeerDTOBuilder.builder().name("BRAHMA").build().toBeerDTO();
+        Beer registeredBeer = beerMapper.toModel(registeredBeerDTO);
+
+        // when
+        when(beerNameFilter.mightContain("brahma")).thenReturn(true);
+        when(beerRepository.findByNormalizedName("brahma")).thenReturn(Optional.of(registeredBeer));
+
+        // then
+        assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(newBeerDTO));
+        verify(beerRepository, never()).save(Mockito.any(Beer.class));
+    }
+
     @Test
     void whenNotRegisteredBeerNameIsGivenThenThrowAnException() {
         // given
         BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
         // when
-        when(beerRepository.findByName(expectedFoundBeerDTO.getName())).thenReturn(Optional.empty());
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedFoundBeerDTO.getName()))).thenReturn(Optional.empty());
 
         // then
         assertThrows(BeerNotFoundException.class, () -> beerService.findByName(expectedFoundBeerDTO.getName()));
     }
 
+    @Test
+    void whenSameNameIsSearchedConcurrentlyThenRepositoryIsQueriedOnce() throws Exception {
+        // given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+        int concurrentCallers = 50;
+        CountDownLatch callersArrived = new CountDownLatch(concurrentCallers);
+
+        // when
+        when(beerRepository.findByNormalizedName(Beer.normalizeName(expectedFoundBeer.getName()))).thenAnswer(invocation -> {
+            callersArrived.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            return Optional.of(expectedFoundBeer);
+        });
+
+        // then
+        ExecutorService executor = Executors.newFixedThreadPool(concurrentCallers);
+        try {
+            List<Future<BeerDTO>> results = new ArrayList<>();
+            for (int i = 0; i < concurrentCallers; i++) {
+                results.add(executor.submit(() -> {
+                    callersArrived.countDown();
+                    return beerService.findByName(expectedFoundBeerDTO.getName());
+                }));
+            }
+            for (Future<BeerDTO> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS), is(equalTo(expectedFoundBeerDTO)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(beerRepository, times(1)).findByNormalizedName(Beer.normalizeName(expectedFoundBeerDTO.getName()));
+    }
+
     @Test
     void whenListBeerIsCalledThenReturnAListOfBeers() {
         // given
@@ -135,11 +371,83 @@ public class BeerServiceTest {
         assertThat(expectedBeersReturned, is(empty()));
     }
 
+    @Test
+    void whenListPageIsCalledThenReturnABoundedPageOfBeers() {
+        // given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+        PageRequest expectedPageRequest = PageRequest.of(0, BeerService.MAX_PAGE_SIZE, Sort.by("id"));
+
+        // when
+        when(beerRepository.findAllBy(expectedPageRequest))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(expectedFoundBeer), expectedPageRequest, true));
+
+        // then
+        BeerPageDTO foundPage = beerService.listPage(-1, BeerService.MAX_PAGE_SIZE + 1);
+
+        assertThat(foundPage.getBeers().get(0), is(equalTo(expectedFoundBeerDTO)));
+        assertThat(foundPage.getPage(), is(equalTo(0)));
+        assertThat(foundPage.getNextCursor(), is(equalTo(expectedFoundBeerDTO.getId())));
+    }
+
+    @Test
+    void whenListAfterIsCalledOnTheLastPageThenNoCursorIsReturned() {
+        // given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().id(2L).build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+        PageRequest expectedPageRequest = PageRequest.of(0, 20, Sort.by("id"));
+
+        // when
+        when(beerRepository.findByIdGreaterThan(1L, expectedPageRequest))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(expectedFoundBeer), expectedPageRequest, false));
+
+        // then
+        BeerPageDTO foundPage = beerService.listAfter(1L, 20);
+
+        assertThat(foundPage.getBeers().get(0), is(equalTo(expectedFoundBeerDTO)));
+        assertThat(foundPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenListFilteredIsCalledThenFilterAndCursorArePassedToTheRepository() {
+        // given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().id(5L).build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+        BeerFilterDTO filter = BeerFilterDTO.builder().brand(expectedFoundBeerDTO.getBrand()).build();
+        PageRequest expectedPageRequest = PageRequest.of(0, 1, Sort.by("id"));
+
+        // when
+        when(beerRepository.findFiltered(filter, 4L, expectedPageRequest))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(expectedFoundBeer), expectedPageRequest, true));
+
+        // then
+        BeerPageDTO foundPage = beerService.listFiltered(filter, 4L, 1);
+
+        assertThat(foundPage.getBeers().get(0), is(equalTo(expectedFoundBeerDTO)));
+        assertThat(foundPage.getNextCursor(), is(equalTo(5L)));
+    }
+
+    @Test
+    void whenAutocompleteIsCalledWithTooLargeLimitThenLimitIsCapped() {
+        // given
+        BeerSuggestionDTO expectedSuggestion = BeerSuggestionDTO.builder().id(1L).name("Brahma").brand("Ambev").build();
+
+        // when
+        when(beerPrefixIndex.complete("bra", BeerService.MAX_SUGGESTIONS)).thenReturn(List.of(expectedSuggestion));
+
+        // then
+        List<BeerSuggestionDTO> suggestions = beerService.autocomplete("bra", BeerService.MAX_SUGGESTIONS + 1);
+
+        assertThat(suggestions, contains(expectedSuggestion));
+        verifyNoInteractions(beerRepository);
+    }
+
     @Test
     void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() throws BeerNotFoundException{
         // given
         BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedDeletedBeer = beerMapper.toModel(expectedDeletedBeerDTO);
+        stockHolds.hold(expectedDeletedBeerDTO.getId(), 2);
 
         // when
         when(beerRepository.findById(expectedDeletedBeerDTO.getId())).thenReturn(Optional.of(expectedDeletedBeer));
@@ -151,6 +459,14 @@ public class BeerServiceTest {
         // assert
         verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
         verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+        verify(beerNameFilter).remove(Beer.normalizeName(expectedDeletedBeerDTO.getName()));
+        verify(beerPrefixIndex).remove(expectedDeletedBeer);
+        assertThat(stockHolds.heldFor(expectedDeletedBeerDTO.getId()), equalTo(0));
+        verify(eventPublisher).publishEvent(StockEventDTO.builder()
+                .type(StockEventType.DELETED)
+                .id(expectedDeletedBeerDTO.getId())
+                .name(expectedDeletedBeerDTO.getName())
+                .build());
     }
 
     @Test
@@ -166,52 +482,42 @@ public class BeerServiceTest {
     }
 
     @Test
-    void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException {
+    void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         //given
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        //when
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
-
         int quantityToIncrement = 10;
         int expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantityAfterIncrement);
+
+        //when
+        when(beerStockUpdater.increment(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(expectedBeer);
 
         // then
         BeerDTO incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
 
         assertThat(expectedQuantityAfterIncrement, equalTo(incrementedBeerDTO.getQuantity()));
         assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDTO.getMax()));
+        verify(eventPublisher).publishEvent(StockEventDTO.of(StockEventType.INCREMENTED, incrementedBeerDTO));
     }
 
     @Test
-    void whenIncrementIsGreatherThanMaxThenThrowException() {
-        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
-
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-
-        int quantityToIncrement = expectedBeer.getMax() + 1;
-        assertThrows(BeerStockExceededException.class, () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
-    }
-
-    @Test
-    void whenIncrementAfterSumIsGreatherThanMaxThenThrowException() {
+    void whenIncrementIsGreatherThanMaxThenThrowException() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToIncrement = expectedBeerDTO.getMax() + 1;
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        when(beerStockUpdater.increment(expectedBeerDTO.getId(), quantityToIncrement))
+                .thenThrow(new BeerStockExceededException(expectedBeerDTO.getId(), quantityToIncrement));
 
-        int quantityToIncrement = expectedBeerDTO.getMax() - expectedBeer.getQuantity() + 1;
         assertThrows(BeerStockExceededException.class, () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
     }
 
     @Test
-    void whenIncrementIsCalledWithInvalidIdThenThrowException() {
+    void whenIncrementIsCalledWithInvalidIdThenThrowException() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
         int quantityToIncrement = 10;
 
-        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+        when(beerStockUpdater.increment(INVALID_BEER_ID, quantityToIncrement)).thenThrow(new BeerNotFoundException(INVALID_BEER_ID));
 
         assertThrows(BeerNotFoundException.class, () -> beerService.increment(INVALID_BEER_ID, quantityToIncrement));
     }
@@ -269,16 +575,16 @@ public class BeerServiceTest {
 //    }
 
     @Test
-    void whenDecrementIsCalledThenDecrementBeerStock() throws BeerNotFoundException, BeerStockInsufficientException {
+    void whenDecrementIsCalledThenDecrementBeerStock() throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
         // given
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
         int quantityToDecrement = 10;
         int quantityAfterDecrement = expectedBeerDTO.getQuantity() - quantityToDecrement;
+        expectedBeer.setQuantity(quantityAfterDecrement);
 
         // when
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+        when(beerStockUpdater.decrement(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(expectedBeer);
 
         // then
         BeerDTO returnedBeer = beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement);
@@ -287,27 +593,62 @@ public class BeerServiceTest {
     }
 
     @Test
-    void whenDecrementQuantityIsGreaterThanQuantityThenThrowException () {
+    void whenDecrementQuantityIsGreaterThanQuantityThenThrowException () throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
         // given
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
-        int quantityToDecrement = expectedBeer.getQuantity() + 1;
+        int quantityToDecrement = expectedBeerDTO.getQuantity() + 1;
 
         // when
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        when(beerStockUpdater.decrement(expectedBeerDTO.getId(), quantityToDecrement))
+                .thenThrow(new BeerStockInsufficientException(expectedBeerDTO.getId(), quantityToDecrement));
 
         // then
-        verify(beerRepository, times(0)).save(any());
         assertThrows(BeerStockInsufficientException.class, () -> beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement));
     }
 
     @Test
-    void whenDecrementIsCalledWithInvalidIdThenThrowException () {
+    void whenDecrementWouldTakeHeldUnitsThenItIsUndoneAndExceptionIsThrown() throws BeerNotFoundException, BeerStockInsufficientException, BeerStockExceededException, BeerStockConflictException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer decrementedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = 5;
+        decrementedBeer.setQuantity(expectedBeerDTO.getQuantity() - quantityToDecrement);
+        stockHolds.hold(expectedBeerDTO.getId(), 8);
+
+        // when
+        when(beerStockUpdater.decrement(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(decrementedBeer);
+
+        // then
+        assertThrows(BeerStockInsufficientException.class, () -> beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement));
+        verify(beerStockUpdater).increment(expectedBeerDTO.getId(), quantityToDecrement);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void whenHeldUnitsAreDecrementedByTheirHolderThenStockIsDecremented() throws BeerNotFoundException, BeerStockInsufficientException, BeerStockExceededException, BeerStockConflictException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer decrementedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = 8;
+        decrementedBeer.setQuantity(expectedBeerDTO.getQuantity() - quantityToDecrement);
+        stockHolds.hold(expectedBeerDTO.getId(), quantityToDecrement);
+
+        // when
+        when(beerStockUpdater.decrement(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(decrementedBeer);
+
+        // then
+        BeerDTO returnedBeer = beerService.decrementHeld(expectedBeerDTO.getId(), quantityToDecrement);
+        assertThat(returnedBeer.getQuantity(), equalTo(2));
+        verify(beerStockUpdater, never()).increment(expectedBeerDTO.getId(), quantityToDecrement);
+    }
+
+    @Test
+    void whenDecrementIsCalledWithInvalidIdThenThrowException () throws BeerNotFoundException, BeerStockInsufficientException, BeerStockConflictException {
         // given
         int quantityToDecrement = 10;
 
         // when
-        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+        when(beerStockUpdater.decrement(INVALID_BEER_ID, quantityToDecrement)).thenThrow(new BeerNotFoundException(INVALID_BEER_ID));
 
         // then
         assertThrows(BeerNotFoundException.class, () -> beerService.decrement(INVALID_BEER_ID, quantityToDecrement));
@@ -0,0 +1,171 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import one.digitalinnovation.beerstock.config.CacheConfig;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.dto.StockEventDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentMode;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstock.enums.StockEventType;
+import one.digitalinnovation.beerstock.enums.StockMutationMode;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.StockAdjustmentModeNotSupportedException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerStockAdjustmentServiceTest {
+
+    private static final long MISSING_BEER_ID = 99L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private BeerStockUpdater beerStockUpdater;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.BEERS_BY_NAME);
+
+    @Test
+    void whenAnyAdjustmentFailsInAllOrNothingModeThenNothingIsApplied() throws Exception {
+        // given
+        Beer lager = beer(1L, "Lager", 10);
+        Beer stout = beer(2L, "Stout", 5);
+        SimpleTransactionStatus transactionStatus = new SimpleTransactionStatus();
+        StockAdjustmentBatchDTO batch = batch(StockAdjustmentMode.ALL_OR_NOTHING,
+                adjustment(1L, 20), adjustment(2L, -6));
+
+        // when
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(beerRepository.findAllForUpdate(Set.of(1L, 2L))).thenReturn(List.of(lager, stout));
+
+        // then
+        List<StockAdjustmentResultDTO> results = service(StockMutationMode.ATOMIC).adjust(batch);
+
+        assertThat(results.get(0).getStatus(), is(equalTo(StockAdjustmentStatus.ROLLED_BACK)));
+        assertThat(results.get(1).getStatus(), is(equalTo(StockAdjustmentStatus.STOCK_INSUFFICIENT)));
+        assertThat(results.get(1).getReason(), is(equalTo(new BeerStockInsufficientException(2L, 6, 5).getMessage())));
+        assertThat(transactionStatus.isRollbackOnly(), is(true));
+        assertThat(lager.getQuantity(), is(equalTo(10)));
+        assertThat(stout.getQuantity(), is(equalTo(5)));
+    }
+
+    @Test
+    void whenSomeAdjustmentsFailInBestEffortModeThenTheOthersAreApplied() throws Exception {
+        // given
+        Beer lager = beer(1L, "Lager", 10);
+        cacheManager.getCache(CacheConfig.BEERS_BY_NAME).put("lager", BeerMapper.INSTANCE.toDTO(lager));
+        StockAdjustmentBatchDTO batch = batch(StockAdjustmentMode.BEST_EFFORT,
+                adjustment(1L, 30), adjustment(1L, 15), adjustment(1L, -50), adjustment(MISSING_BEER_ID, 1));
+
+        // when
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(beerRepository.findAllForUpdate(Set.of(1L, MISSING_BEER_ID))).thenReturn(List.of(lager));
+
+        // then
+        List<StockAdjustmentResultDTO> results = service(StockMutationMode.ATOMIC).adjust(batch);
+
+        assertThat(results.get(0).getStatus(), is(equalTo(StockAdjustmentStatus.APPLIED)));
+        assertThat(results.get(0).getQuantity(), is(equalTo(40)));
+        assertThat(results.get(1).getStatus(), is(equalTo(StockAdjustmentStatus.STOCK_EXCEEDED)));
+        assertThat(results.get(2).getStatus(), is(equalTo(StockAdjustmentStatus.STOCK_INSUFFICIENT)));
+        assertThat(results.get(3).getStatus(), is(equalTo(StockAdjustmentStatus.NOT_FOUND)));
+        assertThat(lager.getQuantity(), is(equalTo(40)));
+        assertThat(cacheManager.getCache(CacheConfig.BEERS_BY_NAME).get("lager"), is(nullValue()));
+        verify(eventPublisher).publishEvent(StockEventDTO.builder()
+                .type(StockEventType.ADJUSTED)
+                .id(1L)
+                .name("Lager")
+                .quantity(40)
+                .max(lager.getMax())
+                .build());
+    }
+
+    @Test
+    void whenStockIsWriteBehindThenBestEffortAdjustmentsGoThroughTheUpdater() throws Exception {
+        // given
+        Beer adjustedLager = beer(1L, "Lager", 15);
+        StockAdjustmentBatchDTO batch = batch(StockAdjustmentMode.BEST_EFFORT, adjustment(1L, 5));
+
+        // when
+        when(beerStockUpdater.increment(1L, 5)).thenReturn(adjustedLager);
+
+        // then
+        List<StockAdjustmentResultDTO> results = service(StockMutationMode.WRITE_BEHIND).adjust(batch);
+
+        assertThat(results.get(0).getStatus(), is(equalTo(StockAdjustmentStatus.APPLIED)));
+        assertThat(results.get(0).getQuantity(), is(equalTo(15)));
+        verify(beerStockUpdater).increment(1L, 5);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void whenStockIsWriteBehindThenAllOrNothingIsRejected() {
+        // given
+        StockAdjustmentBatchDTO batch = batch(StockAdjustmentMode.ALL_OR_NOTHING, adjustment(1L, 5));
+
+        // then
+        assertThrows(StockAdjustmentModeNotSupportedException.class, () -> service(StockMutationMode.WRITE_BEHIND).adjust(batch));
+        verifyNoInteractions(beerStockUpdater, beerRepository);
+    }
+
+    private BeerStockAdjustmentService service(StockMutationMode stockMode) {
+        BeerStockProperties properties = new BeerStockProperties();
+        properties.setMode(stockMode);
+        return new BeerStockAdjustmentService(beerRepository, beerStockUpdater, transactionManager, cacheManager, eventPublisher, properties);
+    }
+
+    private Beer beer(long id, String name, int quantity) {
+        return BeerMapper.INSTANCE.toModel(BeerDTOBuilder.builder()
+                .id(id)
+                .name(name)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO());
+    }
+
+    private StockAdjustmentBatchDTO batch(StockAdjustmentMode mode, StockAdjustmentDTO... adjustments) {
+        return StockAdjustmentBatchDTO.builder()
+                .mode(mode)
+                .adjustments(List.of(adjustments))
+                .build();
+    }
+
+    private StockAdjustmentDTO adjustment(long id, int delta) {
+        return StockAdjustmentDTO.builder()
+                .id(id)
+                .delta(delta)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class BeerStockLocksTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Test
+    void whenStripedLocksAreEnabledThenTheSameBeerAlwaysGetsTheSameLock() {
+        // given
+        BeerStockProperties beerStockProperties = new BeerStockProperties();
+        beerStockProperties.getStripedLocks().setEnabled(true);
+        beerStockProperties.getStripedLocks().setStripes(16);
+
+        // when
+        BeerStockLocks beerStockLocks = new BeerStockLocks(beerStockProperties);
+
+        // then
+        assertThat(beerStockLocks.isEnabled(), is(true));
+        assertThat(beerStockLocks.lockFor(42L), is(sameInstance(beerStockLocks.lockFor(42L))));
+    }
+
+    @Test
+    void whenStripedLocksAreEnabledThenAHeldStripeBlocksOtherThreads() throws InterruptedException {
+        // given
+        BeerStockProperties beerStockProperties = new BeerStockProperties();
+        beerStockProperties.getStripedLocks().setEnabled(true);
+        BeerStockLocks beerStockLocks = new BeerStockLocks(beerStockProperties);
+        BeerStockLocks.StockLock lock = beerStockLocks.lockFor(1L);
+        Thread other = new Thread(() -> {
+            BeerStockLocks.StockLock sameLock = beerStockLocks.lockFor(1L);
+            sameLock.lock();
+            sameLock.unlock();
+        });
+
+        // when
+        lock.lock();
+        boolean blocked;
+        try {
+            other.start();
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (other.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            blocked = other.getState() == Thread.State.WAITING;
+        } finally {
+            lock.unlock();
+        }
+        other.join(TIMEOUT_MILLIS);
+
+        // then
+        assertThat(blocked, is(true));
+        assertThat(other.isAlive(), is(false));
+    }
+
+    @Test
+    void whenStripedLocksAreDisabledThenLocksNeverBlock() throws InterruptedException {
+        // given
+        BeerStockLocks beerStockLocks = new BeerStockLocks(new BeerStockProperties());
+        Thread other = new Thread(() -> beerStockLocks.lockFor(1L).lock());
+
+        // when
+        beerStockLocks.lockFor(1L).lock();
+        other.start();
+        other.join(TIMEOUT_MILLIS);
+
+        // then
+        assertThat(beerStockLocks.isEnabled(), is(false));
+        assertThat(other.isAlive(), is(false));
+    }
+}
@@ -0,0 +1,131 @@
+package one.digitalinnovation.beerstock.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class HashedTimerWheelTest {
+
+    private static final Duration TICK = Duration.ofMillis(100);
+
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void whenDelayHasElapsedThenTimeoutFiresOnTheNextTick() {
+        // given
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK, 8, expired::add, "test-wheel");
+
+        // when
+        wheel.schedule("hold", Duration.ofMillis(250));
+        tick(wheel, 3);
+
+        // then
+        assertThat(expired, is(empty()));
+        tick(wheel, 1);
+        assertThat(expired, contains("hold"));
+    }
+
+    @Test
+    void whenDelayIsLongerThanTheWheelThenTimeoutWaitsItsLaps() {
+        // given
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK, 8, expired::add, "test-wheel");
+
+        // when
+        wheel.schedule("long hold", Duration.ofMillis(2_000));
+        wheel.schedule("short hold", Duration.ofMillis(400));
+        tick(wheel, 20);
+
+        // then
+        assertThat(expired, contains("short hold"));
+        tick(wheel, 1);
+        assertThat(expired, contains("short hold", "long hold"));
+    }
+
+    @Test
+    void whenTimeoutIsCancelledThenItNeverFires() {
+        // given
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK, 8, expired::add, "test-wheel");
+        HashedTimerWheel.Timeout<String> filed = wheel.schedule("committed after transfer", TICK.multipliedBy(3));
+        tick(wheel, 1);
+        HashedTimerWheel.Timeout<String> pending = wheel.schedule("committed before transfer", TICK);
+
+        // when
+        boolean pendingCancelled = pending.cancel();
+        boolean filedCancelled = filed.cancel();
+        tick(wheel, 10);
+
+        // then
+        assertThat(pendingCancelled, is(true));
+        assertThat(filedCancelled, is(true));
+        assertThat(expired, is(empty()));
+    }
+
+    @Test
+    void whenTimeoutHasFiredThenCancelReturnsFalse() {
+        // given
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK, 8, expired::add, "test-wheel");
+        HashedTimerWheel.Timeout<String> timeout = wheel.schedule("hold", TICK);
+
+        // when
+        tick(wheel, 2);
+
+        // then
+        assertThat(timeout.isExpired(), is(true));
+        assertThat(timeout.cancel(), is(false));
+        assertThat(expired, contains("hold"));
+    }
+
+    @Test
+    void whenManyTimeoutsShareABucketThenEachFiresOnce() {
+        // given
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK, 4, expired::add, "test-wheel");
+        List<HashedTimerWheel.Timeout<String>> timeouts = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            timeouts.add(wheel.schedule("hold-" + i, TICK.multipliedBy(1 + i % 20)));
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            timeouts.get(i).cancel();
+        }
+        tick(wheel, 21);
+
+        // then
+        assertThat(expired.size(), equalTo(5_000));
+        assertThat(expired.stream().distinct().count(), equalTo(5_000L));
+    }
+
+    @Test
+    void whenWheelIsStartedThenItsThreadExpiresTimeouts() throws InterruptedException {
+        // given
+        CountDownLatch fired = new CountDownLatch(1);
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(Duration.ofMillis(10), 8, item -> fired.countDown(), "test-wheel");
+
+        // when
+        wheel.start();
+        try {
+            wheel.schedule("hold", Duration.ofMillis(50));
+
+            // then
+            assertThat(fired.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            wheel.close();
+        }
+    }
+
+    private static void tick(HashedTimerWheel<String> wheel, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.tick();
+        }
+    }
+}
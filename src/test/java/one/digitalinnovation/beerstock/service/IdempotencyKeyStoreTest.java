@@ -0,0 +1,236 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.IdempotencyProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.IdempotencyKeyRecord;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyInFlightException;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyKeyStoreTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final String KEY = "order-42";
+    private static final String FINGERPRINT = "decrement:1:10";
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicInteger stockChanges = new AtomicInteger();
+
+    private final BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+    @Test
+    void whenKeyIsRetriedThenTheFirstResultIsReturnedWithoutChangingStockAgain() throws Exception {
+        // given
+        IdempotencyKeyStore store = store(new IdempotencyProperties());
+
+        // when
+        BeerDTO first = store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        BeerDTO retried = store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // then
+        assertThat(stockChanges.get(), equalTo(1));
+        assertThat(retried, is(sameInstance(first)));
+    }
+
+    @Test
+    void whenRetryArrivesWhileTheFirstRequestRunsThenBothGetTheSameResult() throws Exception {
+        // given
+        IdempotencyKeyStore store = store(new IdempotencyProperties());
+        CompletableFuture<BeerDTO> running = new CompletableFuture<>();
+
+        // when
+        CompletableFuture<BeerDTO> first = store.execute(KEY, FINGERPRINT, () -> running);
+        CompletableFuture<BeerDTO> retried = store.execute(KEY, FINGERPRINT, this::decrement);
+        running.complete(beerDTO);
+
+        // then
+        assertThat(first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), equalTo(beerDTO));
+        assertThat(retried.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), equalTo(beerDTO));
+        assertThat(stockChanges.get(), equalTo(0));
+    }
+
+    @Test
+    void whenKeyIsReusedForAnotherRequestThenAnExceptionIsThrown() throws Exception {
+        // given
+        IdempotencyKeyStore store = store(new IdempotencyProperties());
+        store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // when
+        CompletableFuture<BeerDTO> reused = store.execute(KEY, "increment:1:10", this::decrement);
+
+        // then
+        ExecutionException failure = assertThrows(ExecutionException.class, reused::get);
+        assertThat(failure.getCause(), instanceOf(IdempotencyKeyReusedException.class));
+        assertThat(stockChanges.get(), equalTo(1));
+    }
+
+    @Test
+    void whenStockChangeFailsThenRetryRunsItAgain() throws Exception {
+        // given
+        IdempotencyKeyStore store = store(new IdempotencyProperties());
+        CompletableFuture<BeerDTO> failed = store.execute(KEY, FINGERPRINT,
+                () -> CompletableFuture.failedFuture(new BeerStockInsufficientException(1L, 10)));
+
+        // when
+        BeerDTO retried = store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // then
+        ExecutionException failure = assertThrows(ExecutionException.class, failed::get);
+        assertThat(failure.getCause(), instanceOf(BeerStockInsufficientException.class));
+        assertThat(retried, equalTo(beerDTO));
+        assertThat(stockChanges.get(), equalTo(1));
+    }
+
+    @Test
+    void whenKeyExpiresThenRetryRunsTheStockChangeAgain() throws Exception {
+        // given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setTtl(Duration.ofMillis(50));
+        IdempotencyKeyStore store = store(properties);
+        store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // when
+        Thread.sleep(100);
+        store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // then
+        assertThat(stockChanges.get(), equalTo(2));
+    }
+
+    @Test
+    void whenMoreKeysThanCapacityAreUsedThenTheOldestAreForgotten() throws Exception {
+        // given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setStripes(4);
+        properties.setMaxKeys(100);
+        IdempotencyKeyStore store = store(properties);
+
+        // when
+        for (int i = 0; i < 1_000; i++) {
+            store.execute("key-" + i, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertThat(store.size(), lessThanOrEqualTo(100));
+    }
+
+    @Test
+    void whenPersistentKeyWasCompletedByAnotherInstanceThenTheStoredResultIsReturned() throws Exception {
+        // given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setPersistent(true);
+        IdempotencyKeyStore store = store(properties);
+        IdempotencyKeyRecord record = new IdempotencyKeyRecord(KEY, FINGERPRINT, objectMapper.writeValueAsString(beerDTO),
+                Instant.now().plusSeconds(60));
+
+        // when
+        when(repository.claim(eq(KEY), eq(FINGERPRINT), any(Instant.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById(KEY)).thenReturn(Optional.of(record));
+
+        // then
+        BeerDTO replayed = store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(replayed, equalTo(beerDTO));
+        assertThat(stockChanges.get(), equalTo(0));
+        verify(repository, never()).complete(eq(KEY), any(String.class));
+    }
+
+    @Test
+    void whenPersistentKeyIsInFlightOnAnotherInstanceThenConflictIsReturnedWithoutChangingStock() throws Exception {
+        // given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setPersistent(true);
+        IdempotencyKeyStore store = store(properties);
+        IdempotencyKeyRecord claim = new IdempotencyKeyRecord(KEY, FINGERPRINT, null, Instant.now().plusSeconds(60));
+
+        // when
+        when(repository.claim(eq(KEY), eq(FINGERPRINT), any(Instant.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById(KEY)).thenReturn(Optional.of(claim));
+        CompletableFuture<BeerDTO> concurrentRetry = store.execute(KEY, FINGERPRINT, this::decrement);
+
+        // then
+        ExecutionException failure = assertThrows(ExecutionException.class, concurrentRetry::get);
+        assertThat(failure.getCause(), instanceOf(IdempotencyKeyInFlightException.class));
+        assertThat(stockChanges.get(), equalTo(0));
+    }
+
+    @Test
+    void whenPersistentKeyIsClaimedThenTheResultIsStoredOnSuccess() throws Exception {
+        // given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setPersistent(true);
+        IdempotencyKeyStore store = store(properties);
+        ArgumentCaptor<String> response = ArgumentCaptor.forClass(String.class);
+
+        // when
+        when(repository.claim(eq(KEY), eq(FINGERPRINT), any(Instant.class))).thenReturn(1);
+        store.execute(KEY, FINGERPRINT, this::decrement).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // then
+        verify(repository).complete(eq(KEY), response.capture());
+        assertThat(objectMapper.readValue(response.getValue(), BeerDTO.class), equalTo(beerDTO));
+        assertThat(stockChanges.get(), equalTo(1));
+    }
+
+    @Test
+    void whenClaimedStockChangeFailsThenTheClaimIsReleased() throws Exception {
+        // given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setPersistent(true);
+        IdempotencyKeyStore store = store(properties);
+
+        // when
+        when(repository.claim(eq(KEY), eq(FINGERPRINT), any(Instant.class))).thenReturn(1);
+        CompletableFuture<BeerDTO> failed = store.execute(KEY, FINGERPRINT,
+                () -> CompletableFuture.failedFuture(new BeerStockInsufficientException(1L, 10)));
+
+        // then
+        assertThrows(ExecutionException.class, failed::get);
+        verify(repository).deleteById(KEY);
+        verify(repository, never()).complete(eq(KEY), any(String.class));
+    }
+
+    private IdempotencyKeyStore store(IdempotencyProperties properties) {
+        return new IdempotencyKeyStore(properties, repository, objectMapper, new SimpleMeterRegistry());
+    }
+
+    private CompletableFuture<BeerDTO> decrement() {
+        stockChanges.incrementAndGet();
+        return CompletableFuture.completedFuture(beerDTO);
+    }
+}
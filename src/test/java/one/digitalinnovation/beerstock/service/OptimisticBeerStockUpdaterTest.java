@@ -0,0 +1,151 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OptimisticBeerStockUpdaterTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private BeerStockProperties beerStockProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private OptimisticBeerStockUpdater beerStockUpdater;
+
+    @BeforeEach
+    void setUp() {
+        beerStockProperties = new BeerStockProperties();
+        beerStockProperties.getRetry().setMaxAttempts(MAX_ATTEMPTS);
+        beerStockProperties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        beerStockProperties.getRetry().setMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+        beerStockUpdater = new OptimisticBeerStockUpdater(beerRepository, transactionManager, beerStockProperties, meterRegistry);
+    }
+
+    @Test
+    void whenIncrementConflictsOnceThenItIsRetriedAndApplied() throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        int quantityToIncrement = 10;
+
+        // when
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenAnswer(invocation -> Optional.of(beerMapper.toModel(expectedBeerDTO)));
+        when(beerRepository.saveAndFlush(any(Beer.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Beer.class, expectedBeerDTO.getId()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // then
+        Beer incrementedBeer = beerStockUpdater.increment(expectedBeerDTO.getId(), quantityToIncrement);
+
+        assertThat(incrementedBeer.getQuantity(), equalTo(expectedBeerDTO.getQuantity() + quantityToIncrement));
+        assertThat(meterRegistry.counter("beerstock.stock.optimistic.conflicts").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("beerstock.stock.optimistic.attempts").count(), equalTo(2.0));
+    }
+
+    @Test
+    void whenConflictsExhaustTheAttemptsThenThrowException() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        // when
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        when(beerRepository.saveAndFlush(expectedBeer))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Beer.class, expectedBeerDTO.getId()));
+
+        // then
+        assertThrows(BeerStockConflictException.class, () -> beerStockUpdater.decrement(expectedBeerDTO.getId(), 1));
+        verify(beerRepository, times(MAX_ATTEMPTS)).saveAndFlush(expectedBeer);
+        assertThat(meterRegistry.counter("beerstock.stock.optimistic.exhausted").count(), equalTo(1.0));
+    }
+
+    @Test
+    void whenBeersConflictThenOnlyTheFirstHotBeersGetTheirOwnCounter() {
+        // given
+        beerStockProperties.getHotBeers().setConflictThreshold(1);
+        beerStockProperties.getHotBeers().setMaxTracked(1);
+        beerStockUpdater = new OptimisticBeerStockUpdater(beerRepository, transactionManager, beerStockProperties, meterRegistry);
+        Beer hotBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).build().toBeerDTO());
+        Beer otherBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).build().toBeerDTO());
+
+        // when
+        when(beerRepository.findById(hotBeer.getId())).thenReturn(Optional.of(hotBeer));
+        when(beerRepository.findById(otherBeer.getId())).thenReturn(Optional.of(otherBeer));
+        when(beerRepository.saveAndFlush(any(Beer.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Beer.class, hotBeer.getId()));
+
+        // then
+        assertThrows(BeerStockConflictException.class, () -> beerStockUpdater.decrement(hotBeer.getId(), 1));
+        assertThrows(BeerStockConflictException.class, () -> beerStockUpdater.decrement(otherBeer.getId(), 1));
+        assertThat(meterRegistry.counter("beerstock.stock.optimistic.hot.conflicts", "beer", "1").count(), equalTo((double) MAX_ATTEMPTS));
+        assertThat(meterRegistry.find("beerstock.stock.optimistic.hot.conflicts").tag("beer", "2").counter(), is(nullValue()));
+    }
+
+    @Test
+    void whenDecrementQuantityIsGreaterThanQuantityThenThrowException() {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = expectedBeer.getQuantity() + 1;
+
+        // when
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+        assertThrows(BeerStockInsufficientException.class, () -> beerStockUpdater.decrement(expectedBeerDTO.getId(), quantityToDecrement));
+        verify(beerRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void whenIncrementIsCalledWithInvalidIdThenThrowException() {
+        // given
+        long invalidBeerId = 2L;
+
+        // when
+        when(beerRepository.findById(invalidBeerId)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> beerStockUpdater.increment(invalidBeerId, 10));
+    }
+}
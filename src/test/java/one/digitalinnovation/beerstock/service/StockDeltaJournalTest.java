@@ -0,0 +1,78 @@
+package one.digitalinnovation.beerstock.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+
+public class StockDeltaJournalTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void whenJournalIsReopenedThenAppendedDeltasAreReadBackPerBeer() {
+        // given
+        StockDeltaJournal journal = new StockDeltaJournal(journalDirectory, false);
+        journal.open(1);
+        journal.append(1L, 10);
+        journal.append(2L, 5);
+        journal.append(1L, -3);
+        journal.close();
+
+        // when
+        StockDeltaJournal reopenedJournal = new StockDeltaJournal(journalDirectory, false);
+        Map<Long, Integer> deltas = reopenedJournal.read(1);
+
+        // then
+        assertThat(reopenedJournal.segments(), is(equalTo(Arrays.asList(1L))));
+        assertThat(deltas, hasEntry(1L, 7));
+        assertThat(deltas, hasEntry(2L, 5));
+    }
+
+    @Test
+    void whenJournalIsRotatedThenNewDeltasGoToTheNextSegment() {
+        // given
+        StockDeltaJournal journal = new StockDeltaJournal(journalDirectory, false);
+        journal.open(1);
+        journal.append(1L, 10);
+
+        // when
+        long closedSegment = journal.rotate();
+        journal.append(1L, 4);
+        journal.close();
+
+        // then
+        assertThat(closedSegment, is(1L));
+        assertThat(journal.segments(), is(equalTo(Arrays.asList(1L, 2L))));
+        assertThat(journal.read(1), hasEntry(1L, 10));
+        assertThat(journal.read(2), hasEntry(1L, 4));
+    }
+
+    @Test
+    void whenLastLineIsTornThenItIsIgnored() throws IOException {
+        // given
+        StockDeltaJournal journal = new StockDeltaJournal(journalDirectory, false);
+        journal.open(1);
+        journal.append(1L, 10);
+        journal.close();
+        Files.write(journalDirectory.resolve("segment-1.log"), "1 5".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        // when
+        Map<Long, Integer> deltas = journal.read(1);
+
+        // then
+        assertThat(deltas, hasEntry(1L, 10));
+    }
+}
@@ -0,0 +1,223 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.config.StockEventsProperties;
+import one.digitalinnovation.beerstock.dto.StockEventDTO;
+import one.digitalinnovation.beerstock.enums.StockEventType;
+import one.digitalinnovation.beerstock.exception.StockEventSubscribersExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StockEventBroadcasterTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        StockEventsProperties properties = new StockEventsProperties();
+        properties.setBufferSize(BUFFER_SIZE);
+        properties.setMaxSubscribers(2);
+        properties.setSenderThreads(2);
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new StockEventBroadcaster(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.close();
+    }
+
+    @Test
+    void whenStockEventsArePublishedThenEverySubscriberReceivesThemInOrder() throws Exception {
+        // given
+        RecordingEmitter first = new RecordingEmitter(3);
+        RecordingEmitter second = new RecordingEmitter(3);
+        broadcaster.register(first);
+        broadcaster.register(second);
+
+        // when
+        for (int quantity = 1; quantity <= 3; quantity++) {
+            broadcaster.onStockEvent(event(quantity));
+        }
+
+        // then
+        assertThat(first.received.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(second.received.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(first.sends, is(equalTo(List.of(1, 2, 3))));
+        assertThat(second.sends, is(equalTo(List.of(1, 2, 3))));
+    }
+
+    @Test
+    void whenSubscriberFallsTooFarBehindThenItIsDisconnectedAndTheOthersKeepReceiving() throws Exception {
+        // given
+        BlockedEmitter slow = new BlockedEmitter();
+        RecordingEmitter fast = new RecordingEmitter(BUFFER_SIZE + 3);
+        broadcaster.register(slow);
+        broadcaster.register(fast);
+
+        // when
+        broadcaster.onStockEvent(event(0));
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS), is(true));
+        for (int quantity = 1; quantity <= BUFFER_SIZE + 2; quantity++) {
+            broadcaster.onStockEvent(event(quantity));
+            assertThat(fast.awaitSends(quantity + 1), is(true));
+        }
+
+        // then
+        assertThat(fast.sends.size(), is(equalTo(BUFFER_SIZE + 3)));
+        assertThat(broadcaster.subscriberCount(), is(equalTo(1)));
+        assertThat(meterRegistry.counter("beerstock.stock.events.dropped.subscribers").count(), is(equalTo(1.0)));
+        slow.release.countDown();
+    }
+
+    @Test
+    void whenBurstArrivesBeforeASenderStartsThenTheSubscriberIsNotDisconnected() throws Exception {
+        // given
+        StockEventsProperties properties = new StockEventsProperties();
+        properties.setBufferSize(BUFFER_SIZE);
+        properties.setSenderThreads(1);
+        StockEventBroadcaster singleSenderBroadcaster = new StockEventBroadcaster(properties, meterRegistry);
+        BlockedEmitter busy = new BlockedEmitter();
+        RecordingEmitter waiting = new RecordingEmitter(BUFFER_SIZE * 2);
+
+        try {
+            // when
+            singleSenderBroadcaster.register(busy);
+            singleSenderBroadcaster.onStockEvent(event(0));
+            assertThat(busy.sending.await(5, TimeUnit.SECONDS), is(true));
+            singleSenderBroadcaster.register(waiting);
+            for (int quantity = 1; quantity <= BUFFER_SIZE * 2; quantity++) {
+                singleSenderBroadcaster.onStockEvent(event(quantity));
+            }
+            busy.release.countDown();
+
+            // then
+            assertThat(waiting.received.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(waiting.sends.size(), is(equalTo(BUFFER_SIZE * 2)));
+        } finally {
+            busy.release.countDown();
+            singleSenderBroadcaster.close();
+        }
+    }
+
+    @Test
+    void whenWriteToASubscriberStallsThenItIsDisconnectedAndTheOthersDoNotWaitForIt() throws Exception {
+        // given
+        StockEventsProperties properties = new StockEventsProperties();
+        properties.setBufferSize(BUFFER_SIZE);
+        properties.setSenderThreads(1);
+        properties.setSendTimeout(Duration.ofMillis(50));
+        StockEventBroadcaster singleSenderBroadcaster = new StockEventBroadcaster(properties, meterRegistry);
+        BlockedEmitter stalled = new BlockedEmitter();
+        RecordingEmitter healthy = new RecordingEmitter(3);
+        singleSenderBroadcaster.register(stalled);
+
+        try {
+            // when
+            singleSenderBroadcaster.onStockEvent(event(0));
+            assertThat(stalled.sending.await(5, TimeUnit.SECONDS), is(true));
+            singleSenderBroadcaster.register(healthy);
+            for (int quantity = 1; quantity <= 3; quantity++) {
+                singleSenderBroadcaster.onStockEvent(event(quantity));
+            }
+
+            // then
+            assertThat(healthy.received.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(healthy.sends, is(equalTo(List.of(1, 2, 3))));
+            assertThat(singleSenderBroadcaster.subscriberCount(), is(equalTo(1)));
+            assertThat(meterRegistry.counter("beerstock.stock.events.dropped.subscribers").count(), is(equalTo(1.0)));
+        } finally {
+            stalled.release.countDown();
+            singleSenderBroadcaster.close();
+        }
+    }
+
+    @Test
+    void whenMaximumOfSubscribersIsReachedThenNewSubscriptionsAreRejected() throws Exception {
+        // given
+        broadcaster.register(new SseEmitter());
+        broadcaster.register(new SseEmitter());
+
+        // then
+        assertThrows(StockEventSubscribersExceededException.class, () -> broadcaster.register(new SseEmitter()));
+    }
+
+    private static StockEventDTO event(int quantity) {
+        return StockEventDTO.builder()
+                .type(StockEventType.INCREMENTED)
+                .id(1L)
+                .name("Brahma")
+                .quantity(quantity)
+                .max(50)
+                .build();
+    }
+
+    /**
+     * Records the quantity of each event instead of writing it to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Integer> sends = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+
+        RecordingEmitter(int expectedEvents) {
+            this.received = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(StockEventDTO.class::isInstance)
+                    .map(data -> ((StockEventDTO) data).getQuantity())
+                    .forEach(sends::add);
+            received.countDown();
+        }
+
+        boolean awaitSends(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (sends.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            return sends.size() >= count;
+        }
+    }
+
+    /**
+     * Never gets past its first send, like a client that stopped reading.
+     */
+    private static class BlockedEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
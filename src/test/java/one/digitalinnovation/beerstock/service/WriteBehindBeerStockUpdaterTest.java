@@ -0,0 +1,175 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.BeerStockProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.StockJournalCheckpoint;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.StockJournalCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindBeerStockUpdaterTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private StockJournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private BeerStockProperties beerStockProperties;
+
+    @BeforeEach
+    void setUp() {
+        beerStockProperties = new BeerStockProperties();
+        beerStockProperties.getWriteBehind().setJournalDirectory(journalDirectory);
+        beerStockProperties.getWriteBehind().setFlushInterval(Duration.ofHours(1));
+    }
+
+    @Test
+    void whenIncrementIsCalledThenOnlyTheInMemoryCounterChanges() throws BeerNotFoundException, BeerStockExceededException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        WriteBehindBeerStockUpdater beerStockUpdater = startUpdater();
+
+        // when
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+        // then
+        Beer incrementedBeer = beerStockUpdater.increment(expectedBeerDTO.getId(), 10);
+
+        assertThat(incrementedBeer.getQuantity(), equalTo(expectedBeerDTO.getQuantity() + 10));
+        assertThat(beerStockUpdater.currentQuantity(expectedBeerDTO.getId()), equalTo(expectedBeerDTO.getQuantity() + 10));
+        verify(beerRepository, never()).applyQuantityDelta(anyLong(), anyInt());
+    }
+
+    @Test
+    void whenStockBoundsWouldBeCrossedThenThrowException() throws BeerNotFoundException {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        WriteBehindBeerStockUpdater beerStockUpdater = startUpdater();
+
+        // when
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+        // then
+        assertThrows(BeerStockExceededException.class,
+                () -> beerStockUpdater.increment(expectedBeerDTO.getId(), expectedBeerDTO.getMax() - expectedBeerDTO.getQuantity() + 1));
+        assertThrows(BeerStockInsufficientException.class,
+                () -> beerStockUpdater.decrement(expectedBeerDTO.getId(), expectedBeerDTO.getQuantity() + 1));
+    }
+
+    @Test
+    void whenFlushIsCalledThenCoalescedDeltasAreWrittenOnce() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        WriteBehindBeerStockUpdater beerStockUpdater = startUpdater();
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+        // when
+        beerStockUpdater.increment(expectedBeerDTO.getId(), 10);
+        beerStockUpdater.increment(expectedBeerDTO.getId(), 5);
+        beerStockUpdater.decrement(expectedBeerDTO.getId(), 3);
+        beerStockUpdater.flush();
+
+        // then
+        verify(beerRepository, times(1)).applyQuantityDelta(expectedBeerDTO.getId(), 12);
+    }
+
+    @Test
+    void whenJournalAppendFailsThenTheDeltaIsNeitherAppliedNorFlushed() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        WriteBehindBeerStockUpdater beerStockUpdater = startUpdater();
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+        beerStockUpdater.increment(expectedBeerDTO.getId(), 10);
+        beerStockUpdater.stop();
+
+        // when
+        assertThrows(RuntimeException.class, () -> beerStockUpdater.decrement(expectedBeerDTO.getId(), 5));
+        beerStockUpdater.flush();
+
+        // then
+        Beer currentBeer = beerStockUpdater.increment(expectedBeerDTO.getId(), 0);
+        assertThat(currentBeer.getQuantity(), equalTo(expectedBeerDTO.getQuantity() + 10));
+        verify(beerRepository, times(1)).applyQuantityDelta(expectedBeerDTO.getId(), 10);
+        verify(beerRepository, never()).applyQuantityDelta(expectedBeerDTO.getId(), -5);
+    }
+
+    @Test
+    void whenProcessCrashesBeforeFlushThenDeltasAreReplayedOnRestart() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        WriteBehindBeerStockUpdater crashedUpdater = startUpdater();
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+        for (int i = 0; i < 20; i++) {
+            crashedUpdater.increment(expectedBeerDTO.getId(), 2);
+            crashedUpdater.decrement(expectedBeerDTO.getId(), 1);
+        }
+
+        // when
+        startUpdater();
+
+        // then
+        verify(beerRepository, times(1)).applyQuantityDelta(expectedBeerDTO.getId(), 20);
+        verify(checkpointRepository, times(1)).save(new StockJournalCheckpoint(StockJournalCheckpoint.ID, 1L));
+    }
+
+    @Test
+    void whenDeltasWereFlushedBeforeRestartThenTheyAreNotReplayed() throws Exception {
+        // given
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        WriteBehindBeerStockUpdater flushedUpdater = startUpdater();
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+        flushedUpdater.increment(expectedBeerDTO.getId(), 7);
+        flushedUpdater.flush();
+
+        // when
+        when(checkpointRepository.findById(StockJournalCheckpoint.ID))
+                .thenReturn(Optional.of(new StockJournalCheckpoint(StockJournalCheckpoint.ID, 1L)));
+        startUpdater();
+
+        // then
+        verify(beerRepository, times(1)).applyQuantityDelta(expectedBeerDTO.getId(), 7);
+    }
+
+    private WriteBehindBeerStockUpdater startUpdater() {
+        WriteBehindBeerStockUpdater beerStockUpdater =
+                new WriteBehindBeerStockUpdater(beerRepository, checkpointRepository, transactionManager, beerStockProperties);
+        beerStockUpdater.start();
+        return beerStockUpdater;
+    }
+}
@@ -0,0 +1,90 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private static final long EVENT_TIMEOUT_MILLIS = 10_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.close();
+    }
+
+    @Test
+    void whenVirtualThreadBlocksInsideSynchronizedThenPinningIsTimedAtItsSite() throws Exception {
+        // given
+        monitor.start();
+
+        // when
+        Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+        // then
+        Timer timer = awaitTimer();
+        assertThat(timer, notNullValue());
+        assertThat(timer.getId().getTag("site"), equalTo(getClass().getName() + ".sleepWhileHoldingLock"));
+        assertThat(timer.count(), greaterThan(0L));
+    }
+
+    @Test
+    void whenVirtualThreadBlocksOutsideSynchronizedThenNothingIsReported() throws Exception {
+        // given
+        monitor.start();
+
+        // when
+        Thread.ofVirtual().start(() -> sleep(50)).join();
+
+        // then
+        Thread.sleep(2_000);
+        assertThat(meterRegistry.find(VirtualThreadPinningMonitor.PINNED_TIMER).timer(), nullValue());
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * JFR hands events to the stream in batches, about once a second.
+     */
+    private Timer awaitTimer() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(EVENT_TIMEOUT_MILLIS);
+        Timer timer;
+        while ((timer = meterRegistry.find(VirtualThreadPinningMonitor.PINNED_TIMER).timer()) == null
+                && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        return timer;
+    }
+}